@@ -0,0 +1,128 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Serialize is called for every scalar in a response, parseValue for every variable.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CoercingBenchmark {
+
+	private final InstantCoercing instant = new InstantCoercing();
+	private final LocalDateCoercing localDate = new LocalDateCoercing();
+	private final LocalDateTimeCoercing localDateTime = new LocalDateTimeCoercing();
+	private final DurationCoercing duration = new DurationCoercing();
+	private final ZoneIdCoercing zoneId = new ZoneIdCoercing();
+	private final MonthDayCoercing monthDay = new MonthDayCoercing();
+	private final YearMonthCoercing yearMonth = new YearMonthCoercing();
+	private final GraphqlLongCoercing longCoercing = new GraphqlLongCoercing();
+
+	private final Instant instantValue = Instant.parse("2020-01-02T03:04:05Z");
+	private final LocalDate localDateValue = LocalDate.parse("2020-01-02");
+	private final Duration durationValue = Duration.ofMinutes(90);
+	private final ZoneId zoneIdValue = ZoneId.of("Pacific/Auckland");
+	private final MonthDay monthDayValue = MonthDay.of(1, 2);
+	private final YearMonth yearMonthValue = YearMonth.of(2020, 1);
+	private final Long longValue = 1234567890123L;
+
+	@Benchmark
+	public Object instantSerialize() {
+		return instant.serialize(instantValue);
+	}
+
+	@Benchmark
+	public Object instantParse() {
+		return instant.parseValue("2020-01-02T03:04:05Z");
+	}
+
+	@Benchmark
+	public Object localDateSerialize() {
+		return localDate.serialize(localDateValue);
+	}
+
+	@Benchmark
+	public Object localDateParse() {
+		return localDate.parseValue("2020-01-02");
+	}
+
+	@Benchmark
+	public Object localDateTimeParse() {
+		return localDateTime.parseValue("2020-01-02T03:04:05");
+	}
+
+	@Benchmark
+	public Object durationSerialize() {
+		return duration.serialize(durationValue);
+	}
+
+	@Benchmark
+	public Object durationParse() {
+		return duration.parseValue("PT1H30M");
+	}
+
+	@Benchmark
+	public Object zoneIdSerialize() {
+		return zoneId.serialize(zoneIdValue);
+	}
+
+	@Benchmark
+	public Object zoneIdParse() {
+		return zoneId.parseValue("Pacific/Auckland");
+	}
+
+	@Benchmark
+	public Object monthDaySerialize() {
+		return monthDay.serialize(monthDayValue);
+	}
+
+	@Benchmark
+	public Object monthDayParse() {
+		return monthDay.parseValue("--01-02");
+	}
+
+	@Benchmark
+	public Object yearMonthSerialize() {
+		return yearMonth.serialize(yearMonthValue);
+	}
+
+	@Benchmark
+	public Object yearMonthParse() {
+		return yearMonth.parseValue("2020-01");
+	}
+
+	@Benchmark
+	public Object longSerialize() {
+		return longCoercing.serialize(longValue);
+	}
+
+	@Benchmark
+	public Object longParse() {
+		return longCoercing.parseValue("1234567890123");
+	}
+}
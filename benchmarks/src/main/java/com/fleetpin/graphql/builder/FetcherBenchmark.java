@@ -0,0 +1,126 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.fleetpin.graphql.builder.benchmark.model.Cat;
+
+import graphql.GraphQLContext;
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.DataFetchingEnvironmentImpl;
+import graphql.schema.FieldCoordinates;
+import graphql.schema.GraphQLFieldsContainer;
+import graphql.schema.GraphQLSchema;
+
+/**
+ * Calls the data fetchers the builder registers without going through graphql execution. Every
+ * environment shares a single context so restrictions are created once, as they would be for the
+ * fields of a single operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FetcherBenchmark {
+
+	private DataFetcher<?> pets;
+	private DataFetchingEnvironment petsEnv;
+
+	private DataFetcher<?> echo;
+	private DataFetchingEnvironment echoEnv;
+
+	private DataFetcher<?> catName;
+	private DataFetchingEnvironment catEnv;
+
+	private DataFetcher<?> documents;
+	private DataFetchingEnvironment documentsEnv;
+
+	private DataFetcher<?> secret;
+	private DataFetchingEnvironment secretEnv;
+
+	private DataFetcher<?> recordedCatName;
+
+	@Setup
+	public void setup() throws ReflectiveOperationException {
+		GraphQLSchema schema = SchemaBuilder.build(SchemaBuildBenchmark.MODEL);
+		var context = GraphQLContext.newContext().build();
+
+		pets = fetcher(schema, "Query", "pets");
+		petsEnv = env(context, Map.of(), null);
+
+		echo = fetcher(schema, "Query", "echo");
+		echoEnv = env(context, Map.of("item", Map.of("name", "widget", "quantity", 3, "tags", List.of("a", "b"))), null);
+
+		catName = fetcher(schema, "Cat", "name");
+		catEnv = env(context, Map.of(), new Cat("tom"));
+
+		documents = fetcher(schema, "Query", "documents");
+		documentsEnv = env(context, Map.of("count", 100), null);
+
+		secret = fetcher(schema, "Query", "secret");
+		secretEnv = env(context, Map.of("id", "abc"), null);
+
+		var recorded = SchemaBuilder.builder().classpath(SchemaBuildBenchmark.MODEL).metrics(new FieldMetrics()).build();
+		recordedCatName = fetcher(recorded, "Cat", "name");
+	}
+
+	private static DataFetcher<?> fetcher(GraphQLSchema schema, String type, String field) {
+		var container = (GraphQLFieldsContainer) schema.getType(type);
+		return schema.getCodeRegistry().getDataFetcher(FieldCoordinates.coordinates(type, field), container.getFieldDefinition(field));
+	}
+
+	private static DataFetchingEnvironment env(GraphQLContext context, Map<String, Object> arguments, Object source) {
+		return DataFetchingEnvironmentImpl.newDataFetchingEnvironment().context(context).graphQLContext(context).arguments(arguments).source(source).build();
+	}
+
+	@Benchmark
+	public Object rootNoArguments() throws Exception {
+		return pets.get(petsEnv);
+	}
+
+	@Benchmark
+	public Object rootInputArgument() throws Exception {
+		return echo.get(echoEnv);
+	}
+
+	@Benchmark
+	public Object getter() throws Exception {
+		return catName.get(catEnv);
+	}
+
+	@Benchmark
+	public Object restrictedList() throws Exception {
+		return ((CompletionStage<?>) documents.get(documentsEnv)).toCompletableFuture().join();
+	}
+
+	@Benchmark
+	public Object authorized() throws Exception {
+		return secret.get(secretEnv);
+	}
+
+	@Benchmark
+	public Object getterRecorded() throws Exception {
+		return recordedCatName.get(catEnv);
+	}
+}
@@ -0,0 +1,70 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RestrictFilterBenchmark {
+
+	private static final CompletableFuture<Boolean> ALLOW = CompletableFuture.completedFuture(true);
+	private static final CompletableFuture<Boolean> DENY = CompletableFuture.completedFuture(false);
+
+	@Param({"10", "1000", "100000"})
+	private int size;
+
+	private List<Integer> values;
+
+	private final RestrictType<Integer> completed = obj -> obj % 2 == 0 ? ALLOW : DENY;
+	//answers are not ready when filter is called, completed afterwards like a lookup that has gone to a database
+	private final List<Runnable> pending = new ArrayList<>();
+	private final RestrictType<Integer> async = obj -> {
+		var future = new CompletableFuture<Boolean>();
+		pending.add(() -> future.complete(obj % 2 == 0));
+		return future;
+	};
+
+	@Setup
+	public void setup() {
+		values = new ArrayList<>(size);
+		for(int i = 0; i < size; i++) {
+			values.add(i);
+		}
+	}
+
+	@Benchmark
+	public List<Integer> filterCompleted() {
+		return completed.filter(values).join();
+	}
+
+	@Benchmark
+	public List<Integer> filterAsync() {
+		var filtered = async.filter(values);
+		pending.forEach(Runnable::run);
+		pending.clear();
+		return filtered.join();
+	}
+}
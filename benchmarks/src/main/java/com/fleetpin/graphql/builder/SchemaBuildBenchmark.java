@@ -0,0 +1,39 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+import graphql.schema.GraphQLSchema;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SchemaBuildBenchmark {
+
+	static final String MODEL = "com.fleetpin.graphql.builder.benchmark.model";
+
+	@Benchmark
+	public GraphQLSchema build() throws ReflectiveOperationException {
+		return SchemaBuilder.build(MODEL);
+	}
+
+	@Benchmark
+	public GraphQLSchema buildParallel() throws ReflectiveOperationException {
+		return SchemaBuilder.builder().classpath(MODEL).parallel(ForkJoinPool.commonPool()).build();
+	}
+}
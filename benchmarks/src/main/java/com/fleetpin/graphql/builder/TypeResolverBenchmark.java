@@ -0,0 +1,66 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.fleetpin.graphql.builder.benchmark.model.Cat;
+import com.fleetpin.graphql.builder.benchmark.model.Dog;
+
+import graphql.TypeResolutionEnvironment;
+import graphql.execution.TypeResolutionParameters;
+import graphql.schema.GraphQLInterfaceType;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.TypeResolver;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TypeResolverBenchmark {
+
+	private TypeResolver resolver;
+	private TypeResolutionEnvironment cat;
+	private TypeResolutionEnvironment dog;
+	private Cat catValue;
+
+	@Setup
+	public void setup() throws ReflectiveOperationException {
+		GraphQLSchema schema = SchemaBuilder.build(SchemaBuildBenchmark.MODEL);
+		resolver = schema.getCodeRegistry().getTypeResolver((GraphQLInterfaceType) schema.getType("Pet"));
+		catValue = new Cat("tom");
+		cat = TypeResolutionParameters.newParameters().value(catValue).schema(schema).build();
+		dog = TypeResolutionParameters.newParameters().value(new Dog("rex")).schema(schema).build();
+	}
+
+	@Benchmark
+	public Object resolveCat() {
+		return resolver.getType(cat);
+	}
+
+	@Benchmark
+	public Object resolveDog() {
+		return resolver.getType(dog);
+	}
+
+	@Benchmark
+	public String typeNameLookup() {
+		return EntityTypeResolver.typeNameLookup(catValue);
+	}
+}
@@ -0,0 +1,43 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder.benchmark.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fleetpin.graphql.builder.annotations.Entity;
+import com.fleetpin.graphql.builder.annotations.Query;
+import com.fleetpin.graphql.builder.annotations.Restrict;
+
+@Entity
+@Restrict(DocumentRestrict.class)
+public class Document {
+
+	private final int id;
+
+	public Document(int id) {
+		this.id = id;
+	}
+
+	public int getId() {
+		return id;
+	}
+
+	@Query
+	public static List<Document> documents(int count) {
+		var documents = new ArrayList<Document>(count);
+		for(int i = 0; i < count; i++) {
+			documents.add(new Document(i));
+		}
+		return documents;
+	}
+}
@@ -0,0 +1,35 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder.benchmark.model;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.fleetpin.graphql.builder.RestrictType;
+import com.fleetpin.graphql.builder.RestrictTypeFactory;
+
+import graphql.schema.DataFetchingEnvironment;
+
+public class DocumentRestrict implements RestrictTypeFactory<Document>, RestrictType<Document> {
+
+	private static final CompletableFuture<Boolean> ALLOW = CompletableFuture.completedFuture(true);
+	private static final CompletableFuture<Boolean> DENY = CompletableFuture.completedFuture(false);
+
+	@Override
+	public CompletableFuture<RestrictType<Document>> create(DataFetchingEnvironment context) {
+		return CompletableFuture.completedFuture(this);
+	}
+
+	@Override
+	public CompletableFuture<Boolean> allow(Document obj) {
+		return obj.getId() % 2 == 0 ? ALLOW : DENY;
+	}
+}
@@ -0,0 +1,1706 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.fleetpin.graphql.builder.benchmark.model;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import com.fleetpin.graphql.builder.annotations.Entity;
+import com.fleetpin.graphql.builder.annotations.Query;
+
+/**
+ * A wide model so schema building has a realistic number of types to work through.
+ */
+public class Wide {
+
+	@Entity
+	public static class Wide0 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 0;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide1> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide0 wide0(String id) {
+			return new Wide0();
+		}
+	}
+
+	@Entity
+	public static class Wide1 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 1;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide2> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide1 wide1(String id) {
+			return new Wide1();
+		}
+	}
+
+	@Entity
+	public static class Wide2 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 2;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide3> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide2 wide2(String id) {
+			return new Wide2();
+		}
+	}
+
+	@Entity
+	public static class Wide3 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 3;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide4> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide3 wide3(String id) {
+			return new Wide3();
+		}
+	}
+
+	@Entity
+	public static class Wide4 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 4;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide5> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide4 wide4(String id) {
+			return new Wide4();
+		}
+	}
+
+	@Entity
+	public static class Wide5 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 5;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide6> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide5 wide5(String id) {
+			return new Wide5();
+		}
+	}
+
+	@Entity
+	public static class Wide6 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 6;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide7> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide6 wide6(String id) {
+			return new Wide6();
+		}
+	}
+
+	@Entity
+	public static class Wide7 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 7;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide8> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide7 wide7(String id) {
+			return new Wide7();
+		}
+	}
+
+	@Entity
+	public static class Wide8 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 8;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide9> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide8 wide8(String id) {
+			return new Wide8();
+		}
+	}
+
+	@Entity
+	public static class Wide9 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 9;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide10> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide9 wide9(String id) {
+			return new Wide9();
+		}
+	}
+
+	@Entity
+	public static class Wide10 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 10;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide11> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide10 wide10(String id) {
+			return new Wide10();
+		}
+	}
+
+	@Entity
+	public static class Wide11 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 11;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide12> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide11 wide11(String id) {
+			return new Wide11();
+		}
+	}
+
+	@Entity
+	public static class Wide12 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 12;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide13> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide12 wide12(String id) {
+			return new Wide12();
+		}
+	}
+
+	@Entity
+	public static class Wide13 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 13;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide14> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide13 wide13(String id) {
+			return new Wide13();
+		}
+	}
+
+	@Entity
+	public static class Wide14 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 14;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide15> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide14 wide14(String id) {
+			return new Wide14();
+		}
+	}
+
+	@Entity
+	public static class Wide15 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 15;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide16> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide15 wide15(String id) {
+			return new Wide15();
+		}
+	}
+
+	@Entity
+	public static class Wide16 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 16;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide17> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide16 wide16(String id) {
+			return new Wide16();
+		}
+	}
+
+	@Entity
+	public static class Wide17 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 17;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide18> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide17 wide17(String id) {
+			return new Wide17();
+		}
+	}
+
+	@Entity
+	public static class Wide18 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 18;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide19> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide18 wide18(String id) {
+			return new Wide18();
+		}
+	}
+
+	@Entity
+	public static class Wide19 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 19;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide20> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide19 wide19(String id) {
+			return new Wide19();
+		}
+	}
+
+	@Entity
+	public static class Wide20 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 20;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide21> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide20 wide20(String id) {
+			return new Wide20();
+		}
+	}
+
+	@Entity
+	public static class Wide21 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 21;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide22> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide21 wide21(String id) {
+			return new Wide21();
+		}
+	}
+
+	@Entity
+	public static class Wide22 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 22;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide23> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide22 wide22(String id) {
+			return new Wide22();
+		}
+	}
+
+	@Entity
+	public static class Wide23 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 23;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide24> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide23 wide23(String id) {
+			return new Wide23();
+		}
+	}
+
+	@Entity
+	public static class Wide24 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 24;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide25> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide24 wide24(String id) {
+			return new Wide24();
+		}
+	}
+
+	@Entity
+	public static class Wide25 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 25;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide26> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide25 wide25(String id) {
+			return new Wide25();
+		}
+	}
+
+	@Entity
+	public static class Wide26 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 26;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide27> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide26 wide26(String id) {
+			return new Wide26();
+		}
+	}
+
+	@Entity
+	public static class Wide27 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 27;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide28> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide27 wide27(String id) {
+			return new Wide27();
+		}
+	}
+
+	@Entity
+	public static class Wide28 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 28;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide29> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide28 wide28(String id) {
+			return new Wide28();
+		}
+	}
+
+	@Entity
+	public static class Wide29 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 29;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide30> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide29 wide29(String id) {
+			return new Wide29();
+		}
+	}
+
+	@Entity
+	public static class Wide30 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 30;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide31> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide30 wide30(String id) {
+			return new Wide30();
+		}
+	}
+
+	@Entity
+	public static class Wide31 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 31;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide32> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide31 wide31(String id) {
+			return new Wide31();
+		}
+	}
+
+	@Entity
+	public static class Wide32 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 32;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide33> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide32 wide32(String id) {
+			return new Wide32();
+		}
+	}
+
+	@Entity
+	public static class Wide33 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 33;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide34> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide33 wide33(String id) {
+			return new Wide33();
+		}
+	}
+
+	@Entity
+	public static class Wide34 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 34;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide35> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide34 wide34(String id) {
+			return new Wide34();
+		}
+	}
+
+	@Entity
+	public static class Wide35 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 35;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide36> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide35 wide35(String id) {
+			return new Wide35();
+		}
+	}
+
+	@Entity
+	public static class Wide36 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 36;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide37> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide36 wide36(String id) {
+			return new Wide36();
+		}
+	}
+
+	@Entity
+	public static class Wide37 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 37;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide38> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide37 wide37(String id) {
+			return new Wide37();
+		}
+	}
+
+	@Entity
+	public static class Wide38 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 38;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide39> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide38 wide38(String id) {
+			return new Wide38();
+		}
+	}
+
+	@Entity
+	public static class Wide39 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 39;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide40> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide39 wide39(String id) {
+			return new Wide39();
+		}
+	}
+
+	@Entity
+	public static class Wide40 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 40;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide41> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide40 wide40(String id) {
+			return new Wide40();
+		}
+	}
+
+	@Entity
+	public static class Wide41 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 41;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide42> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide41 wide41(String id) {
+			return new Wide41();
+		}
+	}
+
+	@Entity
+	public static class Wide42 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 42;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide43> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide42 wide42(String id) {
+			return new Wide42();
+		}
+	}
+
+	@Entity
+	public static class Wide43 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 43;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide44> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide43 wide43(String id) {
+			return new Wide43();
+		}
+	}
+
+	@Entity
+	public static class Wide44 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 44;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide45> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide44 wide44(String id) {
+			return new Wide44();
+		}
+	}
+
+	@Entity
+	public static class Wide45 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 45;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide46> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide45 wide45(String id) {
+			return new Wide45();
+		}
+	}
+
+	@Entity
+	public static class Wide46 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 46;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide47> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide46 wide46(String id) {
+			return new Wide46();
+		}
+	}
+
+	@Entity
+	public static class Wide47 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 47;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide48> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide47 wide47(String id) {
+			return new Wide47();
+		}
+	}
+
+	@Entity
+	public static class Wide48 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 48;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide49> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide48 wide48(String id) {
+			return new Wide48();
+		}
+	}
+
+	@Entity
+	public static class Wide49 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 49;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide50> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide49 wide49(String id) {
+			return new Wide49();
+		}
+	}
+
+	@Entity
+	public static class Wide50 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 50;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide51> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide50 wide50(String id) {
+			return new Wide50();
+		}
+	}
+
+	@Entity
+	public static class Wide51 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 51;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide52> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide51 wide51(String id) {
+			return new Wide51();
+		}
+	}
+
+	@Entity
+	public static class Wide52 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 52;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide53> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide52 wide52(String id) {
+			return new Wide52();
+		}
+	}
+
+	@Entity
+	public static class Wide53 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 53;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide54> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide53 wide53(String id) {
+			return new Wide53();
+		}
+	}
+
+	@Entity
+	public static class Wide54 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 54;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide55> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide54 wide54(String id) {
+			return new Wide54();
+		}
+	}
+
+	@Entity
+	public static class Wide55 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 55;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide56> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide55 wide55(String id) {
+			return new Wide55();
+		}
+	}
+
+	@Entity
+	public static class Wide56 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 56;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide57> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide56 wide56(String id) {
+			return new Wide56();
+		}
+	}
+
+	@Entity
+	public static class Wide57 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 57;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide58> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide57 wide57(String id) {
+			return new Wide57();
+		}
+	}
+
+	@Entity
+	public static class Wide58 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 58;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide59> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide58 wide58(String id) {
+			return new Wide58();
+		}
+	}
+
+	@Entity
+	public static class Wide59 {
+		public String getName() {
+			return "wide";
+		}
+
+		public int getCount() {
+			return 59;
+		}
+
+		public Instant getCreated() {
+			return Instant.EPOCH;
+		}
+
+		public Optional<String> getDescription() {
+			return Optional.empty();
+		}
+
+		public List<Wide0> getChildren() {
+			return List.of();
+		}
+
+		@Query
+		public static Wide59 wide59(String id) {
+			return new Wide59();
+		}
+	}
+}
@@ -0,0 +1,81 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.fleetpin.graphql.builder;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+import com.fleetpin.graphql.builder.annotations.Context;
+
+import graphql.GraphQLContext;
+import graphql.schema.DataFetchingEnvironment;
+
+/**
+ * Produces a single method argument from the environment. The strategy for each parameter is decided
+ * once when the schema is built so the fetcher only has to run through the array.
+ */
+@FunctionalInterface
+interface ArgumentBinder {
+
+	Object bind(DataFetchingEnvironment env);
+
+	/**
+	 * @param entity true for methods on an entity or authorizer, these take the context in place of a matching argument
+	 * @param converters converts each argument of a query, mutation or subscription method, only asked for arguments that are not context
+	 */
+	static ArgumentBinder[] compile(Method method, boolean entity, IntFunction<Function<Object, Object>> converters) {
+		var parameters = method.getParameters();
+		ArgumentBinder[] binders = new ArgumentBinder[parameters.length];
+		for(int i = 0; i < parameters.length; i++) {
+			binders[i] = compile(parameters[i], entity, converters, i);
+		}
+		return binders;
+	}
+
+	public static Object[] bind(ArgumentBinder[] binders, DataFetchingEnvironment env) {
+		Object[] args = new Object[binders.length];
+		for(int i = 0; i < args.length; i++) {
+			args[i] = binders[i].bind(env);
+		}
+		return args;
+	}
+
+	private static ArgumentBinder compile(Parameter parameter, boolean entity, IntFunction<Function<Object, Object>> converters, int index) {
+		var type = parameter.getType();
+		var name = parameter.getName();
+		if(type.isAssignableFrom(DataFetchingEnvironment.class)) {
+			return env -> env;
+		}
+		if(type.isAssignableFrom(GraphQLContext.class)) {
+			return DataFetchingEnvironment::getGraphQlContext;
+		}
+		if(type.isAnnotationPresent(Context.class)) {
+			return DataFetchingEnvironment::getContext;
+		}
+		if(entity) {
+			//entity methods don't expose arguments, they have always accepted the context without the annotation
+			var boxed = InputMaterializer.box(type);
+			return env -> {
+				Object context = env.getContext();
+				if(boxed.isInstance(context)) {
+					return context;
+				}
+				return env.getArgument(name);
+			};
+		}
+		var converter = converters.apply(index);
+		return env -> converter.apply(env.getArgument(name));
+	}
+}
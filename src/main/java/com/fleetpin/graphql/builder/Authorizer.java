@@ -14,4 +14,11 @@ package com.fleetpin.graphql.builder;
 
 public interface Authorizer {
 
+	/**
+	 * Reuse the decision for the same authorizer method and argument values within an operation, such as when a
+	 * field is aliased many times. Methods that take the DataFetchingEnvironment are always called.
+	 */
+	default boolean cacheDecisions() {
+		return false;
+	}
 }
@@ -12,19 +12,22 @@
 
 package com.fleetpin.graphql.builder;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 
 import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
 
 public class AuthorizerSchema {
 
@@ -80,24 +83,9 @@ public class AuthorizerSchema {
 		
 		
 		int longest = 0;
-		
-		Method[] targets = wrapper.getClass().getMethods();
-
-		for(Method target: targets) {
-			boolean valid = false;
-			valid |= target.getReturnType() == Boolean.TYPE;
-			
-			
-			if(target.getReturnType().isAssignableFrom(CompletableFuture.class)) {
-				Type genericType = ((ParameterizedType) target.getGenericReturnType()).getActualTypeArguments()[0];
-				if(Boolean.class.isAssignableFrom((Class<?>) genericType)) {
-					valid = true;
-				}
-			}
-			if(!valid) {
-				continue;
-			}
-			if(target.getDeclaringClass().equals(Object.class)) {
+		List<Method> toRun = new ArrayList<>();
+		for(Method target: wrapper.getClass().getMethods()) {
+			if(!isAuthorizer(target)) {
 				continue;
 			}
 			int matched = 0;
@@ -108,35 +96,7 @@ public class AuthorizerSchema {
 			}
 			if(matched > longest) {
 				longest = matched;
-			}
-		}
-		
-		List<Method> toRun = new ArrayList<>();
-		for(Method target: targets) {
-			
-			
-			boolean valid = false;
-			valid |= target.getReturnType() == Boolean.TYPE;
-			
-			
-			if(target.getReturnType().isAssignableFrom(CompletableFuture.class)) {
-				Type genericType = ((ParameterizedType) target.getGenericReturnType()).getActualTypeArguments()[0];
-				if(Boolean.class.isAssignableFrom((Class<?>) genericType)) {
-					valid = true;
-				}
-			}
-			if(!valid) {
-				continue;
-			}
-			if(target.getDeclaringClass().equals(Object.class)) {
-				continue;
-			}
-			
-			int matched = 0;
-			for(var parameter: target.getParameters()) {
-				if(parameterNames.contains(parameter.getName())) {
-					matched++;
-				}
+				toRun.clear();
 			}
 			if(matched == longest) {
 				toRun.add(target);
@@ -147,82 +107,129 @@ public class AuthorizerSchema {
 			throw new RuntimeException("No authorizer found for " + method);
 		}
 		
+		//the first match always decides so the others are never called
+		Method authorizer = toRun.get(0);
+		Decider decider = decider(wrapper, authorizer);
 		
-		
-		
-		
-		
-		
+		if(authorizer.getReturnType() == Boolean.TYPE) {
+			return env -> {
+				Object allow = decider.decide(env);
+				if((Boolean) allow) {
+					return fetcher.get(env);
+				}else {
+					throw new RuntimeException("Invalid access");
+				}
+			};
+		}
 		return env -> {
-			for(Method authorizer: toRun) {
-				Object[] args = new Object[authorizer.getParameterCount()];
-				
-				for(int i = 0; i < args.length; i++) {
-					if(authorizer.getParameterTypes()[i].isAssignableFrom(env.getClass())) {
-						args[i] = env;
-					}else if(authorizer.getParameterTypes()[i].isAssignableFrom(env.getContext().getClass())) {
-						args[i] = env.getContext();
-					}else {
-						args[i] = env.getArgument(authorizer.getParameters()[i].getName());
-					}
+			CompletableFuture<Boolean> allowed = (CompletableFuture<Boolean>) decider.decide(env);
+			if(allowed.isDone()) {
+				if(allowed.isCompletedExceptionally()) {
+					return allowed;
 				}
-				try {
-					Object allow = authorizer.invoke(wrapper, args);
-					if(allow instanceof Boolean) {
-						if((Boolean) allow) {
-							return fetcher.get(env);				
-						}else {
-							throw new RuntimeException("Invalid access");	
-						}
-					}else {
-						//only other type that passes checks above
-						CompletableFuture<Boolean> allowed = (CompletableFuture<Boolean>) allow;
-						
-						return allowed.handle((r, e) -> {
-							if(e != null) {
-								if(e.getCause() instanceof Exception) {
-									e = e.getCause();
-								}
-								if(e instanceof RuntimeException) {
-									throw (RuntimeException) e;
-								}
-								throw new RuntimeException(e);
-							}
-							if(r) {
-								try {
-									return fetcher.get(env);
-								} catch (Throwable e1) {
-									if(e1.getCause() instanceof Exception) {
-										e1 = e1.getCause();
-									}
-									if(e1 instanceof RuntimeException) {
-										throw (RuntimeException) e1;
-									}
-									throw new RuntimeException(e1);
-								}				
-							}else {
-								throw new RuntimeException("Invalid access");
-							}
-						}).thenCompose(a -> {
-							if(a instanceof CompletableFuture) {
-								return (CompletableFuture) a;
-							}else {
-								return CompletableFuture.completedFuture(a);
-							}
-							
-						});
-					}
-				}catch (InvocationTargetException e) {
-					if(e.getCause() instanceof Exception) {
-						throw (Exception) e.getCause();
-					}else {
-						throw e;
-					}
+				//already decided so skip building a chain of futures
+				if(allowed.join()) {
+					return fetcher.get(env);
 				}
+				throw new RuntimeException("Invalid access");
 			}
-			return fetcher.get(env);
+			//failures complete the returned future, graphql unwraps them into errors
+			return allowed.thenCompose(allow -> {
+				if(!allow) {
+					throw new RuntimeException("Invalid access");
+				}
+				Object result;
+				try {
+					result = fetcher.get(env);
+				}catch (RuntimeException e) {
+					throw e;
+				}catch (Exception e) {
+					throw new CompletionException(e);
+				}
+				if(result instanceof CompletionStage) {
+					return (CompletionStage<Object>) result;
+				}
+				return CompletableFuture.completedFuture(result);
+			});
+		};
+	}
 
+	private static Decider decider(Authorizer wrapper, Method authorizer) {
+		MethodInvoker invoker = MethodInvoker.build(authorizer);
+		ArgumentBinder[] binders = ArgumentBinder.compile(authorizer, true, null);
+		
+		boolean cache = wrapper.cacheDecisions();
+		for(var type: authorizer.getParameterTypes()) {
+			//a different environment for every field so would never match
+			if(type.isAssignableFrom(DataFetchingEnvironment.class)) {
+				cache = false;
+			}
+		}
+		if(!cache) {
+			return env -> invoker.invoke(wrapper, ArgumentBinder.bind(binders, env));
+		}
+		return env -> {
+			Object[] args = ArgumentBinder.bind(binders, env);
+			//a future is stored as is so aliased fields wait on the same call
+			return OperationCache.computeIfAbsent(env, new Decision(authorizer, args), decision -> {
+				try {
+					return invoker.invoke(wrapper, args);
+				}catch (RuntimeException e) {
+					throw e;
+				}catch (Exception e) {
+					throw new RuntimeException(e);
+				}
+			});
 		};
 	}
 
+	private static boolean isAuthorizer(Method target) {
+		if(target.getDeclaringClass().equals(Object.class)) {
+			return false;
+		}
+		try {
+			//settings such as cacheDecisions
+			Authorizer.class.getMethod(target.getName(), target.getParameterTypes());
+			return false;
+		}catch (NoSuchMethodException e) {
+			//not a setting so can be used to authorize
+		}
+		if(target.getReturnType() == Boolean.TYPE) {
+			return true;
+		}
+		if(target.getReturnType().isAssignableFrom(CompletableFuture.class)) {
+			Type genericType = ((ParameterizedType) target.getGenericReturnType()).getActualTypeArguments()[0];
+			return Boolean.class.isAssignableFrom((Class<?>) genericType);
+		}
+		return false;
+	}
+
+	@FunctionalInterface
+	private interface Decider {
+		Object decide(DataFetchingEnvironment env) throws Exception;
+	}
+
+	private static class Decision {
+		private final Method method;
+		private final Object[] arguments;
+
+		private Decision(Method method, Object[] arguments) {
+			this.method = method;
+			this.arguments = arguments;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * method.hashCode() + Arrays.hashCode(arguments);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(!(obj instanceof Decision)) {
+				return false;
+			}
+			var other = (Decision) obj;
+			return method.equals(other.method) && Arrays.equals(arguments, other.arguments);
+		}
+	}
 }
@@ -0,0 +1,226 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+import org.dataloader.BatchLoaderEnvironment;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderFactory;
+import org.dataloader.DataLoaderOptions;
+
+import com.fleetpin.graphql.builder.annotations.Batch;
+import com.fleetpin.graphql.builder.annotations.Mutation;
+import com.fleetpin.graphql.builder.annotations.Query;
+import com.fleetpin.graphql.builder.annotations.Subscription;
+
+import graphql.execution.instrumentation.dataloader.DataLoaderDispatcherInstrumentationState;
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+
+/**
+ * Fetches a {@link Batch} field through a DataLoader registered on the operation's registry the first time the
+ * field is used, so graphql dispatches all the sources of a level together. The field is declared by the static
+ * batch method itself. Entity fields are keyed by the source, queries by their arguments. Anything else the
+ * batch method takes is context, which is bound from the first call in the batch.
+ */
+final class BatchFetcher implements DataFetcher<Object> {
+
+	private final String name;
+	private final MethodInvoker invoker;
+	//null where the keys go
+	private final ArgumentBinder[] binders;
+	private final int[] keyParameters;
+	private final DataLoaderOptions options;
+	private final Function<DataFetchingEnvironment, Object> key;
+	private final Executor blocking;
+
+	/**
+	 * @param keyParameters the parameters given the keys, when there is more than one each key is a list with a value for each of them
+	 * @param blocking where to call the batch method, null to call it on the dispatching thread
+	 */
+	private BatchFetcher(Method method, Batch batch, ArgumentBinder[] binders, int[] keyParameters, Function<DataFetchingEnvironment, Object> key, Executor blocking) {
+		this.key = key;
+		this.blocking = blocking;
+		this.name = BatchFetcher.class.getName() + ":" + method.getDeclaringClass().getName() + "." + method.getName();
+		this.invoker = MethodInvoker.build(method);
+		this.binders = binders;
+		this.keyParameters = keyParameters;
+		for(int parameter: keyParameters) {
+			binders[parameter] = null;
+		}
+		this.options = DataLoaderOptions.newOptions().setCachingEnabled(batch.cache());
+		if(batch.maxBatchSize() > 0) {
+			options.setMaxBatchSize(batch.maxBatchSize());
+		}
+	}
+
+	/**
+	 * A static batch method on an entity that is not a query, mutation or subscription declares a field of that entity
+	 */
+	static boolean isField(Method method) {
+		return method.isAnnotationPresent(Batch.class) && !method.isAnnotationPresent(Query.class) && !method.isAnnotationPresent(Mutation.class) && !method.isAnnotationPresent(Subscription.class);
+	}
+
+	/**
+	 * The first parameter is given the sources, entity methods don't take arguments so the rest are context
+	 *
+	 * @param blocking executor for {@link com.fleetpin.graphql.builder.annotations.Blocking} batch methods, null for the default
+	 */
+	static BatchFetcher build(Method method, Batch batch, Executor blocking) {
+		if(method.getParameterCount() == 0) {
+			throw new RuntimeException("Batch method must take the list of sources first " + method);
+		}
+		argumentType(method, 0);
+		return new BatchFetcher(method, batch, ArgumentBinder.compile(method, true, null), new int[] {0}, DataFetchingEnvironment::getSource, blocking(method, blocking));
+	}
+
+	/**
+	 * Each graphql argument of the query is a list with the value of every call, in the same order as the results.
+	 *
+	 * @param binders binders for the query, converting the value of a single call
+	 * @param arguments true for each parameter that is a graphql argument
+	 * @param blocking executor for {@link com.fleetpin.graphql.builder.annotations.Blocking} batch methods, null for the default
+	 */
+	static BatchFetcher build(Method query, Batch batch, ArgumentBinder[] binders, boolean[] arguments, Executor blocking) {
+		if(!query.isAnnotationPresent(Query.class)) {
+			throw new RuntimeException("Batch is only supported on queries " + query);
+		}
+		List<Integer> keyParameters = new ArrayList<>();
+		for(int i = 0; i < binders.length; i++) {
+			if(arguments[i]) {
+				keyParameters.add(i);
+			}
+		}
+		if(keyParameters.isEmpty()) {
+			throw new RuntimeException("Batch query must take an argument " + query);
+		}
+		Function<DataFetchingEnvironment, Object> key;
+		if(keyParameters.size() == 1) {
+			var binder = binders[keyParameters.get(0)];
+			key = binder::bind;
+		}else {
+			var keys = keyParameters.stream().map(i -> binders[i]).toArray(ArgumentBinder[]::new);
+			//compared when caching so needs equals, can hold nulls
+			key = env -> Arrays.asList(ArgumentBinder.bind(keys, env));
+		}
+		int[] parameters = keyParameters.stream().mapToInt(Integer::intValue).toArray();
+		return new BatchFetcher(query, batch, binders.clone(), parameters, key, blocking(query, blocking));
+	}
+
+	private static Executor blocking(Method method, Executor blocking) {
+		if(BlockingExecutor.isBlocking(method)) {
+			return BlockingExecutor.executor(blocking);
+		}
+		return null;
+	}
+
+	/**
+	 * @return the type of each result, the method returns a list of them or a future of that list
+	 */
+	static Type resultType(Method method) {
+		Type type = method.getGenericReturnType();
+		if(CompletionStage.class.isAssignableFrom(method.getReturnType()) && type instanceof ParameterizedType) {
+			type = ((ParameterizedType) type).getActualTypeArguments()[0];
+		}
+		if(type instanceof ParameterizedType && List.class.isAssignableFrom(raw(type))) {
+			return ((ParameterizedType) type).getActualTypeArguments()[0];
+		}
+		throw new RuntimeException("Batch method must return a list or a future of a list " + method);
+	}
+
+	/**
+	 * @return the type of a single value of the parameter, which is given a list of them
+	 */
+	static Type argumentType(Method method, int parameter) {
+		Type type = method.getGenericParameterTypes()[parameter];
+		if(type instanceof ParameterizedType && raw(type).isAssignableFrom(List.class)) {
+			return ((ParameterizedType) type).getActualTypeArguments()[0];
+		}
+		throw new RuntimeException("Batch method parameter " + method.getParameters()[parameter].getName() + " must be a list " + method);
+	}
+
+	static Class<?> raw(Type type) {
+		if(type instanceof Class) {
+			return (Class<?>) type;
+		}
+		if(type instanceof ParameterizedType) {
+			return (Class<?>) ((ParameterizedType) type).getRawType();
+		}
+		throw new RuntimeException("Unsupported batch type " + type);
+	}
+
+	@Override
+	public Object get(DataFetchingEnvironment env) throws Exception {
+		Object key = this.key.apply(env);
+		var registry = env.getDataLoaderRegistry();
+		if(registry == DataLoaderDispatcherInstrumentationState.EMPTY_DATALOADER_REGISTRY) {
+			//nothing would dispatch the loader
+			return load(Collections.singletonList(key), env).thenApply(values -> values.get(0));
+		}
+		DataLoader<Object, Object> loader = registry.computeIfAbsent(name, loaderName -> DataLoaderFactory.newDataLoader(this::load, options));
+		return loader.load(key, env);
+	}
+
+	private CompletionStage<List<Object>> load(List<Object> keys, BatchLoaderEnvironment environment) {
+		//anything else the method takes is the same for the whole operation
+		var env = (DataFetchingEnvironment) environment.getKeyContextsList().get(0);
+		return load(keys, env);
+	}
+
+	private CompletableFuture<List<Object>> load(List<Object> keys, DataFetchingEnvironment env) {
+		if(blocking == null) {
+			return invoke(keys, env);
+		}
+		return CompletableFuture.supplyAsync(() -> invoke(keys, env), blocking).thenCompose(result -> result);
+	}
+
+	@SuppressWarnings("unchecked")
+	private CompletableFuture<List<Object>> invoke(List<Object> keys, DataFetchingEnvironment env) {
+		Object[] args = new Object[binders.length];
+		for(int i = 0; i < args.length; i++) {
+			if(binders[i] != null) {
+				args[i] = binders[i].bind(env);
+			}
+		}
+		if(keyParameters.length == 1) {
+			args[keyParameters[0]] = keys;
+		}else {
+			for(int i = 0; i < keyParameters.length; i++) {
+				List<Object> values = new ArrayList<>(keys.size());
+				for(var key: keys) {
+					values.add(((List<?>) key).get(i));
+				}
+				args[keyParameters[i]] = values;
+			}
+		}
+		try {
+			Object result = invoker.invoke(null, args);
+			if(result instanceof CompletionStage) {
+				return ((CompletionStage<List<Object>>) result).toCompletableFuture();
+			}
+			return CompletableFuture.completedFuture((List<Object>) result);
+		}catch (Exception e) {
+			return CompletableFuture.failedFuture(e);
+		}
+	}
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.reactivestreams.Publisher;
+
+import com.fleetpin.graphql.builder.annotations.Blocking;
+
+import graphql.schema.DataFetcher;
+
+/**
+ * Moves {@link Blocking} methods onto an executor. Unless one is given to the builder virtual threads are used
+ * when the runtime has them, otherwise a cached pool of daemon threads.
+ */
+final class BlockingExecutor {
+
+	private BlockingExecutor() {
+	}
+
+	static boolean isBlocking(Method method) {
+		var returnType = method.getReturnType();
+		//same as the async flag on TypeMeta
+		if(CompletableFuture.class.isAssignableFrom(returnType) || Publisher.class.isAssignableFrom(returnType)) {
+			return false;
+		}
+		if(method.isAnnotationPresent(Blocking.class) || method.getDeclaringClass().isAnnotationPresent(Blocking.class)) {
+			return true;
+		}
+		var pack = method.getDeclaringClass().getPackage();
+		return pack != null && pack.isAnnotationPresent(Blocking.class);
+	}
+
+	/**
+	 * @param executor null for the default
+	 */
+	static Executor executor(Executor executor) {
+		return executor == null ? Default.EXECUTOR : executor;
+	}
+
+	/**
+	 * @param executor null for the default
+	 */
+	static DataFetcher<?> wrap(Executor executor, DataFetcher<?> fetcher) {
+		Executor target = executor(executor);
+		return env -> CompletableFuture.supplyAsync(() -> {
+			try {
+				return fetcher.get(env);
+			}catch (RuntimeException e) {
+				throw e;
+			}catch (Exception e) {
+				throw new CompletionException(e);
+			}
+		}, target);
+	}
+
+	//only created once something is blocking
+	private static class Default {
+		private static final Executor EXECUTOR = create();
+
+		private static Executor create() {
+			try {
+				return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+			}catch (ReflectiveOperationException e) {
+				return Executors.newCachedThreadPool(runnable -> {
+					var thread = new Thread(runnable, "graphql-builder-blocking");
+					thread.setDaemon(true);
+					return thread;
+				});
+			}
+		}
+	}
+}
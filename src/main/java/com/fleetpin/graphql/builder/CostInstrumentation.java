@@ -0,0 +1,58 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder;
+
+import com.fleetpin.graphql.builder.annotations.Cost;
+
+import graphql.analysis.FieldComplexityEnvironment;
+import graphql.analysis.MaxQueryComplexityInstrumentation;
+import graphql.schema.GraphQLList;
+import graphql.schema.GraphQLTypeUtil;
+
+/**
+ * Aborts operations that cost more than the budget before any field is fetched. Costs come from the
+ * {@link Cost} annotations on queries and entity methods, fields without one cost 1 plus their selections.
+ */
+public class CostInstrumentation extends MaxQueryComplexityInstrumentation {
+
+	public CostInstrumentation(int budget) {
+		super(budget, (env, childComplexity) -> cost(env, childComplexity, budget));
+	}
+
+	/**
+	 * Capped at one over the budget, graphql adds up the costs of siblings as ints so anything larger could
+	 * wrap around to within the budget.
+	 */
+	static int cost(FieldComplexityEnvironment env, int childComplexity, int budget) {
+		long cap = Math.min(Integer.MAX_VALUE, (long) budget + 1);
+		var directive = env.getFieldDefinition().getAppliedDirective(Cost.class.getSimpleName());
+		if(directive == null) {
+			return (int) Math.min(cap, 1L + childComplexity);
+		}
+		int value = directive.getArgument("value").getValue();
+		String multiplierArgument = directive.getArgument("multiplier").getValue();
+		long multiplier = 1;
+		Object requested = multiplierArgument.isEmpty() ? null : env.getArguments().get(multiplierArgument);
+		if(requested instanceof Number) {
+			multiplier = Math.max(0, ((Number) requested).longValue());
+		}else if(GraphQLTypeUtil.unwrapNonNull(env.getFieldDefinition().getType()) instanceof GraphQLList) {
+			int estimate = directive.getArgument("estimate").getValue();
+			multiplier = estimate;
+		}
+		try {
+			return (int) Math.min(cap, Math.addExact(value, Math.multiplyExact(multiplier, childComplexity)));
+		}catch (ArithmeticException e) {
+			//a large limit should reject the query rather than wrap around
+			return (int) cap;
+		}
+	}
+}
@@ -19,13 +19,11 @@ import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.WeakHashMap;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutionException;
@@ -38,10 +36,10 @@ import org.reactivestreams.Publisher;
 import com.fleetpin.graphql.builder.annotations.Directive;
 
 import graphql.schema.DataFetcher;
-import graphql.schema.DataFetchingEnvironment;
 import graphql.schema.GraphQLAppliedDirective;
 import graphql.schema.GraphQLDirective;
 import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.functions.Function;
 
 class DirectivesSchema {
 
@@ -104,18 +102,16 @@ class DirectivesSchema {
 	}
 	
 	private DataFetcher<?> wrap(RestrictTypeFactory<?> directive, DataFetcher<?> fetcher) {
-		//TODO: hate having this cache here would love to scope against the env object but nothing to hook into dataload caused global leak
-		Map<DataFetchingEnvironment, CompletableFuture<RestrictType>> cache = Collections.synchronizedMap(new WeakHashMap<>());
-		
-		
 		return env -> {
-			return cache.computeIfAbsent(env, key -> directive.create(key).thenApply(t -> t)).thenCompose(restrict -> {
+			//created once per operation rather than once per field
+			CompletableFuture<RestrictType> restriction = OperationCache.computeIfAbsent(env, directive, key -> key.create(env).thenApply(t -> t));
+			return restriction.thenCompose(restrict -> {
 				try {
 					Object response = fetcher.get(env);
 					if(response instanceof CompletionStage) {
-						return ((CompletionStage) response).thenCompose(r -> applyRestrict(restrict, r	));
+						return ((CompletionStage) response).thenCompose(r -> applyRestrict(directive, restrict, r));
 					}
-					return applyRestrict(restrict, response);
+					return applyRestrict(directive, restrict, response);
 				} catch (Exception e) {
 					if(e instanceof RuntimeException) {
 						throw (RuntimeException) e;
@@ -127,10 +123,16 @@ class DirectivesSchema {
 	}
 
 	public boolean target(Method method, TypeMeta meta) {
-		
+		return target(method, meta.getType());
+	}
+
+	/**
+	 * @param type the leaf type the method returns
+	 */
+	boolean target(Method method, Class<?> type) {
 		for(var global: this.global) {
 			//TODO: extract class
-			if(global.extractType().isAssignableFrom(meta.getType())) {
+			if(global.extractType().isAssignableFrom(type)) {
 				return true;
 			}
 		}
@@ -142,8 +144,15 @@ class DirectivesSchema {
 		return false;
 	}
 	public DataFetcher<?> wrap(Method method,  TypeMeta meta, DataFetcher<?> fetcher) {
+		return wrap(method, meta.getType(), fetcher);
+	}
+
+	/**
+	 * @param type the leaf type the method returns
+	 */
+	DataFetcher<?> wrap(Method method, Class<?> type, DataFetcher<?> fetcher) {
 		for(var g: global) {
-			if(g.extractType().isAssignableFrom(meta.getType())) {
+			if(g.extractType().isAssignableFrom(type)) {
 				fetcher = wrap(g, fetcher);
 			}
 		}
@@ -156,13 +165,22 @@ class DirectivesSchema {
 		return fetcher;
 	}
 	
-	private <T> CompletableFuture<Object> applyRestrict(RestrictType restrict, Object response) {
+	private <T> CompletableFuture<Object> applyRestrict(RestrictTypeFactory<?> factory, RestrictType restrict, Object response) {
 		if(response instanceof List) {
 			return restrict.filter((List)response);
 		}else if(response instanceof Publisher) {
-			return CompletableFuture.completedFuture(Flowable.fromPublisher((Publisher) response).flatMap(entry -> {
+			Function<Object, Publisher<Object>> check = entry -> {
+				if(entry instanceof List) {
+					return Flowable.fromCompletionStage(restrict.filter((List) entry));
+				}
 				return Flowable.fromCompletionStage(restrict.allow(entry)).filter(t -> t == Boolean.TRUE).map(t -> entry);
-			}));
+			};
+			int concurrency = factory.publisherConcurrency();
+			Flowable<Object> source = Flowable.fromPublisher((Publisher<Object>) response);
+			if(factory.publisherOrdered()) {
+				return CompletableFuture.completedFuture(source.concatMapEager(check, concurrency, 1));
+			}
+			return CompletableFuture.completedFuture(source.flatMap(check, concurrency));
 		}else if(response instanceof Optional) {
 			var optional = (Optional) response;
 			if(optional.isEmpty()) {
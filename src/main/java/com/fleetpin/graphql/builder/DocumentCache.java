@@ -0,0 +1,180 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import graphql.ErrorType;
+import graphql.ExecutionInput;
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import graphql.execution.preparsed.persisted.PersistedQueryIdInvalid;
+import graphql.execution.preparsed.persisted.PersistedQueryNotFound;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+
+/**
+ * Keeps parsed and validated documents by the SHA-256 of the query text so repeated operations skip both
+ * steps without the cache holding on to the text. Bounded by the number of documents and by the total length
+ * of their queries, roughly the least recently used are dropped first. Resolves persisted query ids to their
+ * text before looking in the cache.
+ */
+final class DocumentCache implements PreparsedDocumentProvider {
+
+	private final int maxDocuments;
+	private final long maxWeight;
+	private final PersistedQueries persisted;
+
+	private final ConcurrentHashMap<String, Entry> documents;
+	private final AtomicLong weight;
+	private final AtomicLong clock;
+	private final ReentrantLock evicting;
+
+	/**
+	 * @param persisted null if persisted queries are not supported
+	 */
+	DocumentCache(int maxDocuments, long maxWeight, PersistedQueries persisted) {
+		this.maxDocuments = maxDocuments;
+		this.maxWeight = maxWeight;
+		this.persisted = persisted;
+		this.documents = new ConcurrentHashMap<>();
+		this.weight = new AtomicLong();
+		this.clock = new AtomicLong();
+		this.evicting = new ReentrantLock();
+	}
+
+	@Override
+	public CompletableFuture<PreparsedDocumentEntry> getDocumentAsync(ExecutionInput input, Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidate) {
+		return CompletableFuture.completedFuture(document(input, parseAndValidate));
+	}
+
+	/**
+	 * Required by graphql-java 18, which calls {@link #getDocumentAsync} instead
+	 */
+	@Override
+	@Deprecated
+	public PreparsedDocumentEntry getDocument(ExecutionInput input, Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidate) {
+		return document(input, parseAndValidate);
+	}
+
+	private PreparsedDocumentEntry document(ExecutionInput input, Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidate) {
+		if(persisted == null) {
+			return cached(input, parseAndValidate);
+		}
+		String query = input.getQuery();
+		String id = persistedId(input);
+		if(id == null) {
+			if(persisted.isLocked()) {
+				return new PreparsedDocumentEntry(GraphqlErrorBuilder.newError().errorType(ErrorType.ValidationError).message("Only persisted queries are allowed").build());
+			}
+			return cached(input, parseAndValidate);
+		}
+		String known = persisted.get(id);
+		if(known == null) {
+			if(query == null || query.isBlank() || PersistedQuerySupport.PERSISTED_QUERY_MARKER.equals(query) || persisted.isLocked()) {
+				var error = new PersistedQueryNotFound(id);
+				return new PreparsedDocumentEntry(GraphqlErrorBuilder.newError().errorType(error).message(error.getMessage()).extensions(error.getExtensions()).build());
+			}
+			if(persisted.isLearning()) {
+				if(!id.equalsIgnoreCase(PersistedQueries.hash(query))) {
+					var error = new PersistedQueryIdInvalid(id);
+					return new PreparsedDocumentEntry(GraphqlErrorBuilder.newError().errorType(error).message(error.getMessage()).extensions(error.getExtensions()).build());
+				}
+				persisted.learned(id, query);
+			}
+			return cached(input, parseAndValidate);
+		}
+		if(known.equals(query)) {
+			return cached(input, parseAndValidate);
+		}
+		return cached(input.transform(builder -> builder.query(known)), parseAndValidate);
+	}
+
+	private PreparsedDocumentEntry cached(ExecutionInput input, Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidate) {
+		String query = input.getQuery();
+		String key = PersistedQueries.hash(query);
+		var cached = documents.get(key);
+		if(cached != null) {
+			cached.used = clock.incrementAndGet();
+			return cached.document;
+		}
+		//two requests for the same new query may both parse it
+		var document = parseAndValidate.apply(input);
+		int entryWeight = query.length();
+		if(entryWeight > maxWeight) {
+			return document;
+		}
+		if(documents.putIfAbsent(key, new Entry(document, entryWeight, clock.incrementAndGet())) == null) {
+			weight.addAndGet(entryWeight);
+			if((documents.size() > maxDocuments || weight.get() > maxWeight) && evicting.tryLock()) {
+				try {
+					evict();
+				}finally {
+					evicting.unlock();
+				}
+			}
+		}
+		return document;
+	}
+
+	/**
+	 * Drops at least a tenth of the documents when there are too many, so the scan happens once per that many
+	 * new queries rather than on each of them, then as many more as it takes to get under the weight.
+	 */
+	private void evict() {
+		int excess = documents.size() - maxDocuments;
+		int target = excess > 0 ? Math.max(excess, maxDocuments / 10) : 0;
+		var candidates = new ArrayList<Map.Entry<String, Entry>>(documents.entrySet());
+		candidates.sort((a, b) -> Long.compare(a.getValue().used, b.getValue().used));
+		for(int i = 0; i < candidates.size() && (i < target || weight.get() > maxWeight); i++) {
+			var candidate = candidates.get(i);
+			if(documents.remove(candidate.getKey(), candidate.getValue())) {
+				weight.addAndGet(-candidate.getValue().weight);
+			}
+		}
+	}
+
+	private static String persistedId(ExecutionInput input) {
+		var extensions = input.getExtensions();
+		if(extensions == null) {
+			return null;
+		}
+		var persistedQuery = extensions.get("persistedQuery");
+		if(!(persistedQuery instanceof Map)) {
+			return null;
+		}
+		var hash = ((Map<?, ?>) persistedQuery).get("sha256Hash");
+		if(hash == null) {
+			return null;
+		}
+		return hash.toString();
+	}
+
+	private static class Entry {
+		private final PreparsedDocumentEntry document;
+		private final int weight;
+		//racy on purpose, eviction only needs it roughly right
+		private volatile long used;
+
+		private Entry(PreparsedDocumentEntry document, int weight, long used) {
+			this.document = document;
+			this.weight = weight;
+			this.used = used;
+		}
+	}
+}
@@ -1,16 +1,25 @@
 package com.fleetpin.graphql.builder;
 
-import java.lang.annotation.Annotation;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
+import com.fleetpin.graphql.builder.annotations.Batch;
 import com.fleetpin.graphql.builder.annotations.Entity;
 import com.fleetpin.graphql.builder.annotations.GraphQLDeprecated;
 import com.fleetpin.graphql.builder.annotations.GraphQLDescription;
@@ -20,6 +29,7 @@ import com.fleetpin.graphql.builder.annotations.Scalar;
 import com.fleetpin.graphql.builder.annotations.SchemaOption;
 
 import graphql.Scalars;
+import graphql.TrivialDataFetcher;
 import graphql.schema.Coercing;
 import graphql.schema.DataFetcher;
 import graphql.schema.FieldCoordinates;
@@ -30,24 +40,68 @@ import graphql.schema.GraphQLFieldDefinition;
 import graphql.schema.GraphQLInputObjectField;
 import graphql.schema.GraphQLInputObjectType;
 import graphql.schema.GraphQLInterfaceType;
+import graphql.schema.GraphQLNamedType;
 import graphql.schema.GraphQLObjectType;
 import graphql.schema.GraphQLObjectType.Builder;
 import graphql.schema.GraphQLScalarType;
 import graphql.schema.GraphQLType;
 import graphql.schema.GraphQLTypeReference;
+import graphql.schema.PropertyDataFetcher;
+import graphql.schema.TypeResolver;
 import graphql.schema.idl.TypeRuntimeWiring;
 
 class EntityProcessor {
 
+	private static final Object[] NO_ARGUMENTS = new Object[0];
+	//marks a name as claimed while its type is being built, a concurrent map can't hold null
+	private static final GraphQLType IN_PROGRESS = GraphQLTypeReference.typeRef("__InProgress");
+
 	private final Map<String, GraphQLType> additionalTypes;
 	private final GraphQLCodeRegistry.Builder codeRegistry;
 	private final DirectivesSchema directives;
-
-
-	public EntityProcessor(Map<String, GraphQLType> additionalTypes, GraphQLCodeRegistry.Builder codeRegistry, DirectivesSchema diretives) {
+	private final Map<String, InputMaterializer> materializers;
+	private final Map<TypeMeta.Key, TypeMeta> typeMetas;
+	private final SchemaBindings bindings;
+	private final Executor blocking;
+	private final FieldMetrics metrics;
+	private final Set<Class<?>> shadowed;
+
+
+	/**
+	 * @param blocking executor for {@link com.fleetpin.graphql.builder.annotations.Blocking} methods, null for the default
+	 * @param metrics null when metrics are not collected
+	 */
+	public EntityProcessor(Map<String, GraphQLType> additionalTypes, GraphQLCodeRegistry.Builder codeRegistry, DirectivesSchema diretives, SchemaBindings bindings, Executor blocking, FieldMetrics metrics) {
 		this.additionalTypes = additionalTypes;
 		this.codeRegistry = codeRegistry;
 		this.directives = diretives;
+		this.materializers = new ConcurrentHashMap<>();
+		this.typeMetas = new ConcurrentHashMap<>();
+		this.bindings = bindings;
+		this.blocking = blocking;
+		this.metrics = metrics;
+		this.shadowed = shadowed(bindings.entities);
+	}
+
+	/**
+	 * Entities sharing a name with another entity, the one that sorts last by class name is kept so the schema does
+	 * not depend on which is reached first. The others are referred to by the name without their own type.
+	 */
+	private static Set<Class<?>> shadowed(Set<Class<?>> entities) {
+		var kept = new HashMap<String, Class<?>>();
+		var shadowed = new HashSet<Class<?>>();
+		for(var entity: entities) {
+			var other = kept.get(entity.getSimpleName());
+			if(other == null) {
+				kept.put(entity.getSimpleName(), entity);
+			}else if(other.getName().compareTo(entity.getName()) < 0) {
+				kept.put(entity.getSimpleName(), entity);
+				shadowed.add(other);
+			}else {
+				shadowed.add(entity);
+			}
+		}
+		return shadowed;
 	}
 	
 	
@@ -82,9 +136,10 @@ class EntityProcessor {
 
 				addDirectives(type, type, scalarType::withAppliedDirective);
 				var built = scalarType.build();
-				if(additionalTypes.put(built.getName(), built) != null) {
+				if(!register(built)) {
 					throw new RuntimeException(built.getName() + "defined more than once");
 				}
+				bindings.scalar(built.getName(), type);
 			}
 			
 			if(type.isAnnotationPresent(Entity.class)) {
@@ -109,9 +164,10 @@ class EntityProcessor {
 					}
 					addDirectives(type, type, enumType::withAppliedDirective);
 					GraphQLEnumType built = enumType.build();
-					if(additionalTypes.put(built.getName(), built) != null) {
+					if(!register(built)) {
 						throw new RuntimeException(built.getName() + "defined more than once");
 					}
+					bindings.enumType(built.getName(), type);
 					return;
 				}
 
@@ -155,6 +211,12 @@ class EntityProcessor {
 
 				TypeRuntimeWiring.Builder runtime = new TypeRuntimeWiring.Builder();
 				runtime.typeName(typeName);
+				Map<String, SchemaBindings.Getter> getters = new LinkedHashMap<>();
+				InputMaterializer materializer = null;
+				List<SchemaBindings.Setter> setters = new ArrayList<>();
+				if(input) {
+					materializer = InputMaterializer.build(type);
+				}
 				for(Method method: type.getMethods()) {
 					try {
 						if(method.isSynthetic()) {
@@ -170,13 +232,16 @@ class EntityProcessor {
 						if(Modifier.isAbstract(method.getModifiers()) || method.getDeclaringClass().isInterface()) {
 							continue;
 						}
-						if(Modifier.isStatic(method.getModifiers())) {
+						boolean batched = Modifier.isStatic(method.getModifiers()) && BatchFetcher.isField(method);
+						if(Modifier.isStatic(method.getModifiers()) && !batched) {
 							continue;
 						}else {
-							//getter type
-							if(!input && method.getName().matches("(get|is)[A-Z].*")) {
+							//getter type, or a batch method declaring the field itself
+							if(!input && (batched || method.getName().matches("(get|is)[A-Z].*"))) {
 								String name;
-								if(method.getName().startsWith("get")) {
+								if(batched) {
+									name = method.getName();
+								}else if(method.getName().startsWith("get")) {
 									name = method.getName().substring("get".length(), "get".length() + 1).toLowerCase() + method.getName().substring("get".length() + 1);
 								}else {
 									name = method.getName().substring("is".length(), "is".length() + 1).toLowerCase() + method.getName().substring("is".length() + 1);
@@ -187,30 +252,43 @@ class EntityProcessor {
 								addDirectives(method, type, field::withAppliedDirective);
 								var deprecated = method.getAnnotation(GraphQLDeprecated.class);
 								if(deprecated != null) {
-									field.deprecate(deprecated.value());
+									SchemaBuilder.deprecate(field, deprecated.value());
 								}
 								var description = method.getAnnotation(GraphQLDescription.class);
 								if(description != null) {
 									field.description(description.value());
 								}
 
-								TypeMeta innerMeta = new TypeMeta(this, meta, method.getReturnType(), method.getGenericReturnType());
+								TypeMeta innerMeta;
+								if(batched) {
+									Type resultType = BatchFetcher.resultType(method);
+									innerMeta = typeMeta(meta, BatchFetcher.raw(resultType), resultType);
+								}else {
+									innerMeta = typeMeta(meta, method.getReturnType(), method.getGenericReturnType());
+								}
 								field.type(SchemaBuilder.getType(innerMeta, method.getAnnotations()));
 								graphType.field(field);
 								interfaceBuilder.field(field);
 
-								if(method.getParameterCount() > 0 || directives.target(method, innerMeta)) {
-									codeRegistry.dataFetcher(FieldCoordinates.coordinates(typeName, name), buildDirectiveWrapper(directives, method, innerMeta));
-								}
+								boolean wrapped = method.getParameterCount() > 0 || directives.target(method, innerMeta);
+								getters.put(name, new SchemaBindings.Getter(typeName, name, method, wrapped, innerMeta.getType()));
 							}else if(input && method.getName().matches("set[A-Z].*")) {
 								if(method.getParameterCount() == 1 && !method.isAnnotationPresent(InputIgnore.class)) {
 									String name = method.getName().substring("set".length(), "set".length() + 1).toLowerCase() + method.getName().substring("set".length() + 1);
 									GraphQLInputObjectField.Builder field = GraphQLInputObjectField.newInputObjectField();
 									field.name(name);
 									addDirectives(method, type, field::withAppliedDirective);
-									TypeMeta innerMeta = new TypeMeta(this, meta, method.getParameterTypes()[0], method.getGenericParameterTypes()[0]);
+									TypeMeta innerMeta = typeMeta(meta, method.getParameterTypes()[0], method.getGenericParameterTypes()[0]);
 									field.type(SchemaBuilder.getInputType(innerMeta, method.getParameterAnnotations()[0]));
 									graphInputType.field(field);
+									if(materializer != null) {
+										var argument = SchemaBindings.Argument.of(innerMeta);
+										if(materializer.addSetter(name, method, converter(method, argument))) {
+											setters.add(new SchemaBindings.Setter(name, method, argument));
+										}else {
+											materializer = null;
+										}
+									}
 								}
 							}
 						}
@@ -221,30 +299,27 @@ class EntityProcessor {
 				}
 
 				boolean unmappedGenerics = meta.hasUnmappedGeneric();
+				for(var getter: getters.values()) {
+					var fetcher = buildGetter(getter);
+					bindings.getter(getter);
+					var coordinates = FieldCoordinates.coordinates(typeName, getter.field);
+					dataFetcher(coordinates, FieldMetrics.wrap(metrics, coordinates, fetcher));
+					if(unmappedGenerics) {
+						bindings.getter(new SchemaBindings.Getter(typeName + "_DIRECT", getter.field, getter.method, getter.wrapped, getter.leaf));
+						coordinates = FieldCoordinates.coordinates(typeName + "_DIRECT", getter.field);
+						dataFetcher(coordinates, FieldMetrics.wrap(metrics, coordinates, fetcher));
+					}
+				}
 				boolean interfaceable = type.isInterface() || Modifier.isAbstract(type.getModifiers());
 				if(!input && (interfaceable || unmappedGenerics)) {
 					addDirectives(type, type, interfaceBuilder::withAppliedDirective);
 					GraphQLInterfaceType built = interfaceBuilder.build();
-					if(additionalTypes.put(built.getName(), built) != null) {
+					if(!register(built)) {
 						throw new RuntimeException(built.getName() + "defined more than once");
 					}
 					
-					codeRegistry.typeResolver(built.getName(), env -> {
-						if(type.isInstance(env.getObject())) {	
-							
-							var name = typeNameLookup(env.getObject());
-							var t = additionalTypes.get(name);
-							if(!(t instanceof GraphQLObjectType)) {
-								t = additionalTypes.get(name + "_DIRECT");	
-							}
-							try {
-								return (GraphQLObjectType) t;
-							}catch (ClassCastException e) {
-								throw e;
-							}
-						}
-						return null;
-					});
+					typeResolver(built.getName(), new EntityTypeResolver(type, additionalTypes));
+					bindings.interfaceType(built.getName(), type);
 					if(interfaceable) {
 						return;
 					}
@@ -256,19 +331,19 @@ class EntityProcessor {
 				Class<?> parent = type.getSuperclass();
 				while(!input && parent != null) {
 					if(parent.isAnnotationPresent(Entity.class)) {
-						TypeMeta innerMeta = new TypeMeta(this, meta, parent, type.getGenericSuperclass());
-						String interfaceName = process(innerMeta);
+						TypeMeta innerMeta = typeMeta(meta, parent, type.getGenericSuperclass());
+						String interfaceName = innerMeta.getName();
 						graphType.withInterface(GraphQLTypeReference.typeRef(interfaceName));
 						
 						if(!parent.equals(type.getGenericSuperclass())) {
-							innerMeta = new TypeMeta(this, meta, parent, parent);
-							interfaceName = process(innerMeta);
+							innerMeta = typeMeta(meta, parent, parent);
+							interfaceName = innerMeta.getName();
 							graphType.withInterface(GraphQLTypeReference.typeRef(interfaceName));
 						}
 						
-						var genericMeta = new TypeMeta(this, null, parent, parent);
+						var genericMeta = typeMeta(null, parent, parent);
 						if(!getName(innerMeta).equals(getName(genericMeta))) {
-							interfaceName = process(genericMeta);
+							interfaceName = genericMeta.getName();
 							graphType.withInterface(GraphQLTypeReference.typeRef(interfaceName));
 						}
 						
@@ -277,14 +352,14 @@ class EntityProcessor {
 				}
 				//generics
 				if(!input) {				
-					TypeMeta innerMeta = new TypeMeta(this, meta, type, type);
+					TypeMeta innerMeta = typeMeta(meta, type, type);
 					if(!getName(innerMeta).equals(typeName)) {
-						String interfaceName = process(innerMeta);
+						String interfaceName = innerMeta.getName();
 						graphType.withInterface(GraphQLTypeReference.typeRef(interfaceName));
 					}
-					innerMeta = new TypeMeta(this, null, type, type);
+					innerMeta = typeMeta(null, type, type);
 					if(!getName(innerMeta).equals(typeName)) {
-						String interfaceName = process(innerMeta);
+						String interfaceName = innerMeta.getName();
 						graphType.withInterface(GraphQLTypeReference.typeRef(interfaceName));
 					}
 				}
@@ -292,10 +367,10 @@ class EntityProcessor {
 				if(!input && (schemaType == SchemaOption.BOTH || schemaType == SchemaOption.TYPE)) {
 					addDirectives(type, type, graphType::withAppliedDirective);
 					GraphQLObjectType built = graphType.build();
-					if(additionalTypes.put(built.getName(), built) != null) {
+					if(!register(built)) {
 						throw new RuntimeException(built.getName() + "defined more than once");
 					}
-					codeRegistry.typeResolver(built.getName(), env -> {
+					typeResolver(built.getName(), env -> {
 						if(type.isInstance(env.getObject())) {	
 							return built;
 						}
@@ -305,9 +380,13 @@ class EntityProcessor {
 				if(input && (schemaType == SchemaOption.BOTH || schemaType == SchemaOption.INPUT)) {
 					addDirectives(type, type, graphInputType::withAppliedDirective);
 					GraphQLInputObjectType inputBuild = graphInputType.build();
-					if(additionalTypes.put(inputBuild.getName(), inputBuild) != null) {
+					if(!register(inputBuild)) {
 						throw new RuntimeException(inputBuild.getName() + " defined more than once");
 					}
+					if(materializer != null) {
+						materializers.put(inputBuild.getName(), materializer);
+						bindings.input(new SchemaBindings.Input(inputBuild.getName(), type, setters));
+					}
 				}
 			}
 		}catch (ReflectiveOperationException | RuntimeException e) {
@@ -318,46 +397,146 @@ class EntityProcessor {
 
 
 
+	/**
+	 * The same class and generic type found through the same parent always resolves the same way, so the
+	 * resolution and its names are only worked out once per build.
+	 */
+	TypeMeta typeMeta(TypeMeta parent, Class<?> type, Type genericType) {
+		var key = new TypeMeta.Key(parent, type, genericType);
+		var meta = typeMetas.get(key);
+		if(meta == null) {
+			//built outside the map as resolving can be slow
+			meta = new TypeMeta(this, parent, type, genericType);
+			var existing = typeMetas.putIfAbsent(key, meta);
+			if(existing != null) {
+				meta = existing;
+			}
+		}
+		return meta;
+	}
+
+	/**
+	 * @return false if a type with the same name has already been built
+	 */
+	private boolean register(GraphQLNamedType type) {
+		var previous = additionalTypes.put(type.getName(), type);
+		return previous == null || previous == IN_PROGRESS;
+	}
+
+	/**
+	 * @return true if the caller should build the type, false if it is built or being built elsewhere
+	 */
+	private boolean claim(String name) {
+		return name != null && additionalTypes.putIfAbsent(name, IN_PROGRESS) == null;
+	}
+
+	/**
+	 * The built types, without names that were claimed but turned out not to need a type.
+	 */
+	Set<GraphQLType> getTypes() {
+		var types = new HashSet<GraphQLType>();
+		for(var type: additionalTypes.values()) {
+			if(type != IN_PROGRESS) {
+				types.add(type);
+			}
+		}
+		return types;
+	}
+
+	//the registry builder is not thread safe and types can be built in parallel
+	private void dataFetcher(FieldCoordinates coordinates, DataFetcher<?> fetcher) {
+		synchronized (codeRegistry) {
+			codeRegistry.dataFetcher(coordinates, fetcher);
+		}
+	}
+
+	private void typeResolver(String name, TypeResolver resolver) {
+		synchronized (codeRegistry) {
+			codeRegistry.typeResolver(name, resolver);
+		}
+	}
+
 	private void addDirectives(AnnotatedElement element, Class<?> location, Consumer<GraphQLAppliedDirective> builder) {
 		this.directives.addSchemaDirective(element, location, builder);
 	}
 
 
 	
-	private static <T extends Annotation> DataFetcher<?> buildDirectiveWrapper(DirectivesSchema diretives, Method method, TypeMeta meta) {
-		DataFetcher<?> fetcher = env -> {
-			Object[] args = new Object[method.getParameterCount()];
-			for(int i = 0; i < args.length; i++) {
+	DataFetcher<?> buildGetter(SchemaBindings.Getter getter) {
+		var batch = getter.method.getAnnotation(Batch.class);
+		if(batch != null) {
+			return directives.wrap(getter.method, getter.leaf, BatchFetcher.build(getter.method, batch, blocking));
+		}
+		if(getter.wrapped) {
+			return buildDirectiveWrapper(getter.method, getter.leaf);
+		}
+		if(BlockingExecutor.isBlocking(getter.method)) {
+			return BlockingExecutor.wrap(blocking, buildAccessor(getter.method, getter.field));
+		}
+		return buildAccessor(getter.method, getter.field);
+	}
 
-				if(method.getParameterTypes()[i].isAssignableFrom(env.getClass())) {
-					args[i] = env;
-				}else if(method.getParameterTypes()[i].isAssignableFrom(env.getContext().getClass())) {
-					args[i] = env.getContext();
-				}else {
-					Object obj = env.getArgument(method.getParameters()[i].getName());
-					args[i] = obj;
-				}
-			}
+	Executor getBlockingExecutor() {
+		return blocking;
+	}
+
+	FieldMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Converts the value passed to a setter.
+	 */
+	Function<Object, Object> converter(Method setter, SchemaBindings.Argument argument) {
+		return InputMaterializer.converter(this, setter.getGenericParameterTypes()[0], argument.depth, argument.leaf, argument.inputName);
+	}
+
+	void addMaterializer(String inputName, InputMaterializer materializer) {
+		materializers.put(inputName, materializer);
+	}
+
+	private DataFetcher<?> buildDirectiveWrapper(Method method, Class<?> leaf) {
+		MethodInvoker invoker = MethodInvoker.build(method);
+		ArgumentBinder[] binders = ArgumentBinder.compile(method, true, null);
+		DataFetcher<?> fetcher = env -> {
+			Object[] args = ArgumentBinder.bind(binders, env);
 			try {
-				return method.invoke(env.getSource(), args);
+				return invoker.invoke(env.getSource(), args);
 			}catch (Exception e) {
 				System.out.println(method);
 				System.out.println((Object) env.getSource());
 				System.out.println(Arrays.toString(args));
-				if(e.getCause() instanceof Exception) {
-					throw (Exception) e.getCause();
-				}else {
-					throw e;
-				}
-
+				throw e;
 			}
 		};
+		if(BlockingExecutor.isBlocking(method)) {
+			fetcher = BlockingExecutor.wrap(blocking, fetcher);
+		}
 
-		fetcher = diretives.wrap(method, meta, fetcher);
+		fetcher = directives.wrap(method, leaf, fetcher);
 		return fetcher;
 
 	}
 
+	/**
+	 * Plain getters are called directly rather than leaving graphql to find the property by name on each call
+	 */
+	private static TrivialDataFetcher<?> buildAccessor(Method method, String name) {
+		MethodInvoker invoker = MethodInvoker.build(method);
+		Class<?> declaringClass = method.getDeclaringClass();
+		DataFetcher<?> fallback = PropertyDataFetcher.fetching(name);
+		return env -> {
+			Object source = env.getSource();
+			if(source == null) {
+				return null;
+			}
+			if(!declaringClass.isInstance(source)) {
+				return fallback.get(env);
+			}
+			return invoker.invoke(source, NO_ARGUMENTS);
+		};
+	}
+
 	
 	private String getName(TypeMeta meta) {
 		var type = meta.getType();
@@ -399,59 +578,30 @@ class EntityProcessor {
 		return name;
 	}
 
-	private String typeNameLookup(Object obj) {
-		var type = obj.getClass();
-		String name = null;
-
-		if(type.isEnum()) {
-			name = type.getSimpleName();
-		}
-		if(type.isAnnotationPresent(Scalar.class)) {
-			name = type.getSimpleName();
-		}
-		if(type.isAnnotationPresent(Entity.class)) {
-			name = type.getSimpleName();
-		}
-		
-		for(var t: type.getTypeParameters()) {
-			t.getTypeName();
-			for(var method: type.getMethods()) {
-				var methodType = method.getGenericReturnType();
-				if(methodType instanceof TypeVariable) {
-					var typeVariable = ((TypeVariable) methodType);
-					if(typeVariable.equals(t)) {
-						//maybe we should dig through private fields first
-						try {
-							name += "_" + typeNameLookup(method.invoke(obj));
-						} catch (ReflectiveOperationException e) {
-							throw new RuntimeException("Could not infre type with regard to generics.");
-						} //TODO: might have arguments might be a future which would make impossible to resolve
-					}
-				}
-			}
-		}
-		
-		return name;
-	}
-	
 	public String process(TypeMeta meta) {
 		
-		TypeMeta rawMeta = new TypeMeta(this, null,meta.getType(), meta.getType());
+		TypeMeta rawMeta = typeMeta(null, meta.getType(), meta.getType());
 		String rawName = getName(rawMeta);
 
-		if(rawName != null && !this.additionalTypes.containsKey(rawName)) {
-			this.additionalTypes.put(rawName, null); // so we don't go around in circles if depend on self
+		String name = getName(meta);
+		if(shadowed.contains(meta.getType())) {
+			return name;
+		}
+
+		if(claim(rawName)) { // so we don't go around in circles if depend on self
 			addType(rawMeta, false);
 		}
 		
-		String name = getName(meta);
-		if(name != null && !this.additionalTypes.containsKey(name)) {
-			this.additionalTypes.put(name, null); // so we don't go around in circles if depend on self
+		if(claim(name)) {
 			addType(meta, false);
 		}
 		return name;
 	}
 
+	InputMaterializer getMaterializer(String inputName) {
+		return materializers.get(inputName);
+	}
+
 	private String getNameInput(TypeMeta meta) {
 		var type = meta.getType();
 		String name = null;
@@ -491,8 +641,7 @@ class EntityProcessor {
 
 	public String processInput(TypeMeta meta) {
 		String name = getNameInput(meta);
-		if(name != null && !this.additionalTypes.containsKey(name)) {
-			this.additionalTypes.put(name, null); // so we don't go around in circles if depend on self
+		if(!shadowed.contains(meta.getType()) && claim(name)) {
 			addType(meta, true);
 		}
 		return name;
@@ -0,0 +1,139 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.fleetpin.graphql.builder;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.TypeVariable;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fleetpin.graphql.builder.annotations.Entity;
+import com.fleetpin.graphql.builder.annotations.Scalar;
+
+import graphql.TypeResolutionEnvironment;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLType;
+import graphql.schema.TypeResolver;
+
+/**
+ * Resolves the object type for an interface. Classes without generics always resolve to the same type so
+ * are cached against the class. Generic classes have to look at the values of their generic getters, those
+ * are cached by the resulting name so the getters are only inspected once per class.
+ */
+class EntityTypeResolver implements TypeResolver {
+
+	private static final Object[] NO_ARGUMENTS = new Object[0];
+
+	private static final ClassValue<TypeName> NAMES = new ClassValue<>() {
+		@Override
+		protected TypeName computeValue(Class<?> type) {
+			return new TypeName(type);
+		}
+	};
+
+	private final Class<?> type;
+	private final Map<String, GraphQLType> types;
+	//not a ClassValue, that would tie the schema's types to the class for as long as the class is loaded
+	private final Map<Class<?>, Optional<GraphQLObjectType>> byClass;
+	private final Map<String, Optional<GraphQLObjectType>> byName;
+
+	EntityTypeResolver(Class<?> type, Map<String, GraphQLType> types) {
+		this.type = type;
+		this.types = types;
+		this.byClass = new ConcurrentHashMap<>();
+		this.byName = new ConcurrentHashMap<>();
+	}
+
+	@Override
+	public GraphQLObjectType getType(TypeResolutionEnvironment env) {
+		Object object = env.getObject();
+		if(!type.isInstance(object)) {
+			return null;
+		}
+		var naming = NAMES.get(object.getClass());
+		if(naming.generics.length == 0) {
+			var resolved = byClass.get(object.getClass());
+			if(resolved == null) {
+				resolved = byClass.computeIfAbsent(object.getClass(), c -> lookup(naming.name));
+			}
+			return resolved.orElse(null);
+		}
+		return byName.computeIfAbsent(naming.name(object), this::lookup).orElse(null);
+	}
+
+	private Optional<GraphQLObjectType> lookup(String name) {
+		var t = types.get(name);
+		if(!(t instanceof GraphQLObjectType)) {
+			t = types.get(name + "_DIRECT");
+		}
+		return Optional.ofNullable((GraphQLObjectType) t);
+	}
+
+	static String typeNameLookup(Object obj) {
+		if(obj == null) {
+			throw new RuntimeException("Could not infre type with regard to generics.");
+		}
+		return NAMES.get(obj.getClass()).name(obj);
+	}
+
+	private static class TypeName {
+		private final String name;
+		private final MethodInvoker[] generics;
+
+		private TypeName(Class<?> type) {
+			String name = null;
+			if(type.isEnum()) {
+				name = type.getSimpleName();
+			}
+			if(type.isAnnotationPresent(Scalar.class)) {
+				name = type.getSimpleName();
+			}
+			if(type.isAnnotationPresent(Entity.class)) {
+				name = type.getSimpleName();
+			}
+			this.name = name;
+
+			var generics = new ArrayList<MethodInvoker>();
+			for(var t: type.getTypeParameters()) {
+				for(Method method: type.getMethods()) {
+					var methodType = method.getGenericReturnType();
+					if(methodType instanceof TypeVariable && methodType.equals(t) && method.getParameterCount() == 0) {
+						//maybe we should dig through private fields first
+						//TODO: might have arguments might be a future which would make impossible to resolve
+						generics.add(MethodInvoker.build(method));
+					}
+				}
+			}
+			this.generics = generics.toArray(MethodInvoker[]::new);
+		}
+
+		private String name(Object obj) {
+			if(generics.length == 0) {
+				return name;
+			}
+			var name = new StringBuilder(String.valueOf(this.name));
+			for(var generic: generics) {
+				Object value;
+				try {
+					value = generic.invoke(obj, NO_ARGUMENTS);
+				} catch (Exception e) {
+					throw new RuntimeException("Could not infre type with regard to generics.", e);
+				}
+				name.append('_').append(typeNameLookup(value));
+			}
+			return name.toString();
+		}
+	}
+}
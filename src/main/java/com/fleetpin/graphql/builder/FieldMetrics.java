@@ -0,0 +1,273 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import graphql.TrivialDataFetcher;
+import graphql.execution.DataFetcherResult;
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.FieldCoordinates;
+
+/**
+ * Counts calls, errors and latency for every field the schema builds a fetcher for. The time covers everything
+ * wrapped around the method, authorizers, directives and restrictions included. Fields that return a
+ * CompletableFuture are recorded when it completes and kept apart from those that return straight away.
+ *
+ * Calls and errors are exact, latency is sampled as reading the clock costs more than the rest of the
+ * recording. Counters are striped by thread so concurrent fields rarely share a cache line.
+ */
+public final class FieldMetrics {
+
+	/**
+	 * Bucket i holds latencies below 2^i nanoseconds, the last also holds anything longer
+	 */
+	public static final int BUCKETS = 40;
+
+	private static final int CALLS = 0;
+	private static final int ASYNC_CALLS = 1;
+	private static final int ERRORS = 2;
+	private static final int SYNC = 3;
+	private static final int ASYNC = SYNC + BUCKETS;
+	//rounded up to whole cache lines
+	private static final int STRIDE = (ASYNC + BUCKETS + 7) & ~7;
+
+	private final int stripes;
+	private final long sampleMask;
+	private final Map<FieldCoordinates, Recorder> recorders;
+
+	/**
+	 * Times one in every 8 calls of a field
+	 */
+	public FieldMetrics() {
+		this(8);
+	}
+
+	/**
+	 * @param sampleEvery times one in this many calls of a field, rounded up to a power of two
+	 */
+	public FieldMetrics(int sampleEvery) {
+		int stripes = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1));
+		this.stripes = Math.min(stripes, 64);
+		this.sampleMask = Integer.highestOneBit(Math.max(1, sampleEvery * 2 - 1)) - 1;
+		this.recorders = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Totals since the schema was built.
+	 */
+	public Map<FieldCoordinates, Snapshot> snapshot() {
+		var snapshot = new HashMap<FieldCoordinates, Snapshot>();
+		recorders.forEach((coordinates, recorder) -> snapshot.put(coordinates, recorder.snapshot()));
+		return snapshot;
+	}
+
+	/**
+	 * Passes a snapshot to the exporter every period until the returned future is cancelled.
+	 */
+	public ScheduledFuture<?> schedule(ScheduledExecutorService executor, Duration period, Exporter exporter) {
+		long nanos = period.toNanos();
+		return executor.scheduleAtFixedRate(() -> exporter.export(snapshot()), nanos, nanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * @param metrics null when metrics are not collected
+	 */
+	static DataFetcher<?> wrap(FieldMetrics metrics, FieldCoordinates coordinates, DataFetcher<?> fetcher) {
+		if(metrics == null) {
+			return fetcher;
+		}
+		var recorder = metrics.recorders.computeIfAbsent(coordinates, c -> new Recorder(metrics.stripes, metrics.sampleMask));
+		if(fetcher instanceof TrivialDataFetcher) {
+			return (TrivialDataFetcher<?>) env -> recorder.record(fetcher, env);
+		}
+		return env -> recorder.record(fetcher, env);
+	}
+
+	@FunctionalInterface
+	public interface Exporter {
+		void export(Map<FieldCoordinates, Snapshot> snapshot);
+	}
+
+	private static final class Recorder {
+		private final AtomicLongArray counters;
+		private final int mask;
+		private final long sampleMask;
+
+		private Recorder(int stripes, long sampleMask) {
+			this.counters = new AtomicLongArray(stripes * STRIDE);
+			this.mask = stripes - 1;
+			this.sampleMask = sampleMask;
+		}
+
+		private Object record(DataFetcher<?> fetcher, DataFetchingEnvironment env) throws Exception {
+			int base = ((int) Thread.currentThread().getId() & mask) * STRIDE;
+			boolean timed = (counters.getAndIncrement(base + CALLS) & sampleMask) == 0;
+			long start = timed ? System.nanoTime() : 0;
+			Object result;
+			try {
+				result = fetcher.get(env);
+			}catch (Exception | Error e) {
+				complete(base, SYNC, timed, start, true);
+				throw e;
+			}
+			//a class check, an interface check against the usual String results costs more than the recording
+			if(result instanceof CompletableFuture) {
+				counters.getAndIncrement(base + ASYNC_CALLS);
+				((CompletableFuture<?>) result).whenComplete((value, error) -> complete(base, ASYNC, timed, start, error != null || failed(value)));
+			}else {
+				complete(base, SYNC, timed, start, failed(result));
+			}
+			return result;
+		}
+
+		private static boolean failed(Object result) {
+			return result instanceof DataFetcherResult && ((DataFetcherResult<?>) result).hasErrors();
+		}
+
+		/**
+		 * @param base stripe of the calling thread, futures can complete on any thread
+		 */
+		private void complete(int base, int histogram, boolean timed, long start, boolean error) {
+			if(timed) {
+				long nanos = System.nanoTime() - start;
+				int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(Math.max(0, nanos)));
+				counters.getAndIncrement(base + histogram + bucket);
+			}
+			if(error) {
+				counters.getAndIncrement(base + ERRORS);
+			}
+		}
+
+		private Snapshot snapshot() {
+			long calls = 0;
+			long asyncCalls = 0;
+			long errors = 0;
+			long[] sync = new long[BUCKETS];
+			long[] async = new long[BUCKETS];
+			for(int base = 0; base < counters.length(); base += STRIDE) {
+				calls += counters.get(base + CALLS);
+				asyncCalls += counters.get(base + ASYNC_CALLS);
+				errors += counters.get(base + ERRORS);
+				for(int i = 0; i < BUCKETS; i++) {
+					sync[i] += counters.get(base + SYNC + i);
+					async[i] += counters.get(base + ASYNC + i);
+				}
+			}
+			return new Snapshot(calls, asyncCalls, errors, new Histogram(sync), new Histogram(async));
+		}
+	}
+
+	public static final class Snapshot {
+		private final long calls;
+		private final long asyncCalls;
+		private final long errors;
+		private final Histogram sync;
+		private final Histogram async;
+
+		private Snapshot(long calls, long asyncCalls, long errors, Histogram sync, Histogram async) {
+			this.calls = calls;
+			this.asyncCalls = asyncCalls;
+			this.errors = errors;
+			this.sync = sync;
+			this.async = async;
+		}
+
+		/**
+		 * Includes calls still running
+		 */
+		public long getCalls() {
+			return calls;
+		}
+
+		/**
+		 * Calls that returned a future
+		 */
+		public long getAsyncCalls() {
+			return asyncCalls;
+		}
+
+		public long getErrors() {
+			return errors;
+		}
+
+		/**
+		 * Sampled latency of calls that returned a value or threw
+		 */
+		public Histogram getSync() {
+			return sync;
+		}
+
+		/**
+		 * Sampled latency of calls that returned a future, timed until it completed
+		 */
+		public Histogram getAsync() {
+			return async;
+		}
+	}
+
+	public static final class Histogram {
+		private final long[] buckets;
+		private final long count;
+
+		private Histogram(long[] buckets) {
+			this.buckets = buckets;
+			long count = 0;
+			for(long bucket: buckets) {
+				count += bucket;
+			}
+			this.count = count;
+		}
+
+		/**
+		 * Number of calls sampled
+		 */
+		public long getCount() {
+			return count;
+		}
+
+		/**
+		 * @return count for each bucket, bucket i holds latencies below 2^i nanoseconds
+		 */
+		public long[] getBuckets() {
+			return buckets.clone();
+		}
+
+		/**
+		 * @param quantile between 0 and 1
+		 * @return upper bound in nanoseconds of the bucket the quantile falls in, 0 when nothing was recorded
+		 */
+		public long quantile(double quantile) {
+			if(count == 0) {
+				return 0;
+			}
+			long target = (long) Math.ceil(quantile * count);
+			long seen = 0;
+			for(int i = 0; i < buckets.length; i++) {
+				seen += buckets[i];
+				if(seen >= Math.max(1, target)) {
+					return 1L << i;
+				}
+			}
+			return 1L << (buckets.length - 1);
+		}
+	}
+}
@@ -0,0 +1,212 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.fleetpin.graphql.builder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.fleetpin.graphql.builder.annotations.Mutation;
+import com.fleetpin.graphql.builder.annotations.Query;
+import com.fleetpin.graphql.builder.annotations.Subscription;
+import com.fleetpin.graphql.builder.processor.SchemaIndexProcessor;
+
+/**
+ * Reads every index written by {@link SchemaIndexProcessor} visible to the class loader, keeping the
+ * entries that fall under the class path prefixes the same way the scanner would.
+ */
+class GeneratedSchemaIndex implements SchemaIndex {
+
+	private final Map<String, Set<String>> entries;
+	private final String[] classPath;
+	private final ClassLoader loader;
+
+	private GeneratedSchemaIndex(Map<String, Set<String>> entries, String[] classPath, ClassLoader loader) {
+		this.entries = entries;
+		this.classPath = classPath;
+		this.loader = loader;
+	}
+
+	static GeneratedSchemaIndex load(ClassLoader loader, String... classPath) {
+		Map<String, Set<String>> entries = new HashMap<>();
+		boolean found = false;
+		try {
+			var resources = loader.getResources(SchemaIndexProcessor.LOCATION);
+			while(resources.hasMoreElements()) {
+				found = true;
+				read(resources.nextElement(), entries);
+			}
+		}catch (IOException e) {
+			throw new RuntimeException("Failed to read " + SchemaIndexProcessor.LOCATION, e);
+		}
+		if(!found) {
+			throw new RuntimeException("No " + SchemaIndexProcessor.LOCATION + " found, is " + SchemaIndexProcessor.class.getSimpleName() + " enabled for the build");
+		}
+		return new GeneratedSchemaIndex(entries, classPath, loader);
+	}
+
+	/**
+	 * @return the content of every index, empty if there are none
+	 */
+	static List<byte[]> resources(ClassLoader loader) {
+		List<byte[]> toReturn = new ArrayList<>();
+		try {
+			var resources = loader.getResources(SchemaIndexProcessor.LOCATION);
+			while(resources.hasMoreElements()) {
+				try(var in = resources.nextElement().openStream()) {
+					toReturn.add(in.readAllBytes());
+				}
+			}
+		}catch (IOException e) {
+			throw new RuntimeException("Failed to read " + SchemaIndexProcessor.LOCATION, e);
+		}
+		return toReturn;
+	}
+
+	private static void read(URL url, Map<String, Set<String>> entries) throws IOException {
+		try(var reader = new BufferedReader(new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+			String line;
+			while((line = reader.readLine()) != null) {
+				line = line.trim();
+				int split = line.indexOf(' ');
+				if(line.isEmpty() || line.startsWith("#") || split == -1) {
+					continue;
+				}
+				entries.computeIfAbsent(line.substring(0, split), k -> new HashSet<>()).add(line.substring(split + 1).trim());
+			}
+		}
+	}
+
+	private boolean included(String name) {
+		for(String prefix: classPath) {
+			if(name.startsWith(prefix)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private Set<String> names(String kind) {
+		Set<String> toReturn = new HashSet<>();
+		for(String name: entries.getOrDefault(kind, Collections.emptySet())) {
+			if(included(name)) {
+				toReturn.add(name);
+			}
+		}
+		return toReturn;
+	}
+
+	private Class<?> load(String name) {
+		try {
+			return Class.forName(name, false, loader);
+		}catch (ClassNotFoundException e) {
+			throw new RuntimeException("Schema index references missing class " + name, e);
+		}
+	}
+
+	private Set<Class<?>> classes(String kind) {
+		Set<Class<?>> toReturn = new HashSet<>();
+		for(String name: names(kind)) {
+			toReturn.add(load(name));
+		}
+		return toReturn;
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> Set<Class<? extends T>> subTypes(String kind, Class<T> type) {
+		Set<Class<? extends T>> toReturn = new HashSet<>();
+		for(var found: classes(kind)) {
+			if(!type.isAssignableFrom(found)) {
+				throw new RuntimeException("Schema index is out of date " + found + " is not a " + type);
+			}
+			toReturn.add((Class<? extends T>) found);
+		}
+		return toReturn;
+	}
+
+	private Set<Method> methods(String kind, Class<? extends Annotation> annotation) {
+		Set<Method> toReturn = new HashSet<>();
+		for(String name: names(kind)) {
+			int split = name.indexOf('#');
+			var type = load(name.substring(0, split));
+			var methodName = name.substring(split + 1);
+			for(var method: type.getDeclaredMethods()) {
+				if(method.getName().equals(methodName) && method.isAnnotationPresent(annotation)) {
+					toReturn.add(method);
+				}
+			}
+		}
+		return toReturn;
+	}
+
+	@Override
+	public Set<Class<? extends Authorizer>> getAuthorizers() {
+		return subTypes(SchemaIndexProcessor.AUTHORIZER, Authorizer.class);
+	}
+
+	@Override
+	public Set<Class<? extends SchemaConfiguration>> getSchemaConfigurations() {
+		return subTypes(SchemaIndexProcessor.CONFIGURATION, SchemaConfiguration.class);
+	}
+
+	@Override
+	public Set<Class<?>> getDirectives() {
+		return classes(SchemaIndexProcessor.DIRECTIVE);
+	}
+
+	@Override
+	public Set<Class<?>> getRestrict() {
+		return classes(SchemaIndexProcessor.RESTRICT);
+	}
+
+	@Override
+	public Set<Class<?>> getRestricts() {
+		return classes(SchemaIndexProcessor.RESTRICTS);
+	}
+
+	@Override
+	public Set<Class<?>> getEntities() {
+		return classes(SchemaIndexProcessor.ENTITY);
+	}
+
+	@Override
+	public Set<Class<?>> getScalars() {
+		return classes(SchemaIndexProcessor.SCALAR);
+	}
+
+	@Override
+	public Set<Method> getQueries() {
+		return methods(SchemaIndexProcessor.QUERY, Query.class);
+	}
+
+	@Override
+	public Set<Method> getMutations() {
+		return methods(SchemaIndexProcessor.MUTATION, Mutation.class);
+	}
+
+	@Override
+	public Set<Method> getSubscriptions() {
+		return methods(SchemaIndexProcessor.SUBSCRIPTION, Subscription.class);
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder;
+
+import java.util.function.Consumer;
+
+import graphql.GraphQL;
+import graphql.execution.AsyncExecutionStrategy;
+import graphql.execution.AsyncSerialExecutionStrategy;
+import graphql.schema.GraphQLSchema;
+
+/**
+ * Creates a {@link GraphQL} for a built schema that caches parsed and validated documents, and optionally
+ * runs persisted queries and caches results.
+ *
+ * <pre>
+ * GraphQL graphql = GraphQLFactory.builder(schema).persistedQueries(queries).build();
+ * </pre>
+ */
+public final class GraphQLFactory {
+
+	private GraphQLFactory() {
+	}
+
+	public static Builder builder(GraphQLSchema schema) {
+		return new Builder(schema);
+	}
+
+	public static class Builder {
+
+		private final GraphQLSchema schema;
+		private int maxDocuments = 1000;
+		private long maxWeight = 1_000_000;
+		private PersistedQueries persistedQueries;
+		private ResultCache resultCache;
+		private Consumer<GraphQL.Builder> configure = builder -> {
+		};
+
+		private Builder(GraphQLSchema schema) {
+			this.schema = schema;
+		}
+
+		/**
+		 * @param maxDocuments most documents to keep
+		 * @param maxWeight most characters of query text to keep across all documents, larger queries are not cached
+		 */
+		public Builder documentCache(int maxDocuments, long maxWeight) {
+			this.maxDocuments = maxDocuments;
+			this.maxWeight = maxWeight;
+			return this;
+		}
+
+		public Builder persistedQueries(PersistedQueries persistedQueries) {
+			this.persistedQueries = persistedQueries;
+			return this;
+		}
+
+		/**
+		 * Replaces the query and mutation execution strategies with ones that go through the cache.
+		 */
+		public Builder resultCache(ResultCache resultCache) {
+			this.resultCache = resultCache;
+			return this;
+		}
+
+		/**
+		 * For anything else on the {@link GraphQL.Builder} such as instrumentation or execution strategies.
+		 */
+		public Builder configure(Consumer<GraphQL.Builder> configure) {
+			this.configure = configure;
+			return this;
+		}
+
+		public GraphQL build() {
+			var builder = GraphQL.newGraphQL(schema).preparsedDocumentProvider(new DocumentCache(maxDocuments, maxWeight, persistedQueries));
+			if(resultCache != null) {
+				builder.queryExecutionStrategy(new ResultCacheStrategy(resultCache, new AsyncExecutionStrategy()));
+				builder.mutationExecutionStrategy(new ResultCacheStrategy(resultCache, new AsyncSerialExecutionStrategy()));
+			}
+			configure.accept(builder);
+			return builder.build();
+		}
+	}
+}
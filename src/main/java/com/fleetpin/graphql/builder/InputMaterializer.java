@@ -0,0 +1,341 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.fleetpin.graphql.builder;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fleetpin.graphql.builder.annotations.Entity;
+
+/**
+ * Builds input entities straight from the map graphql coerces input objects into by calling the setters
+ * discovered while building the schema. Types this can not handle, such as those without a no argument
+ * constructor or those carrying jackson annotations, keep using {@link SchemaBuilder#MAPPER}.
+ */
+final class InputMaterializer {
+
+	private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+	private final Class<?> type;
+	private final MethodHandle constructor;
+	private final Map<String, Setter> setters;
+	private final JavaType javaType;
+
+	private InputMaterializer(Class<?> type, MethodHandle constructor) {
+		this.type = type;
+		this.constructor = constructor;
+		this.setters = new HashMap<>();
+		this.javaType = SchemaBuilder.MAPPER.getTypeFactory().constructType(type);
+	}
+
+	/**
+	 * @return null if the type has to be left to jackson
+	 */
+	static InputMaterializer build(Class<?> type) {
+		if(type.isInterface() || type.isEnum() || Modifier.isAbstract(type.getModifiers())) {
+			return null;
+		}
+		if(type.getEnclosingClass() != null && !Modifier.isStatic(type.getModifiers())) {
+			return null;
+		}
+		if(hasJacksonAnnotation(type)) {
+			return null;
+		}
+		for(var field: type.getDeclaredFields()) {
+			if(hasJacksonAnnotation(field)) {
+				return null;
+			}
+		}
+		for(var constructor: type.getDeclaredConstructors()) {
+			if(hasJacksonAnnotation(constructor)) {
+				return null;
+			}
+		}
+		try {
+			Constructor<?> constructor = type.getDeclaredConstructor();
+			constructor.setAccessible(true);
+			var handle = MethodHandles.lookup().unreflectConstructor(constructor).asType(CONSTRUCTOR_TYPE);
+			return new InputMaterializer(type, handle);
+		}catch (ReflectiveOperationException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @return false if the setter can not be called directly and the type should be left to jackson
+	 */
+	boolean addSetter(String name, Method method, Function<Object, Object> converter) {
+		if(hasJacksonAnnotation(method)) {
+			return false;
+		}
+		try {
+			method.setAccessible(true);
+			var handle = MethodHandles.lookup().unreflect(method).asType(SETTER_TYPE);
+			setters.put(name, new Setter(handle, converter, method.getParameterTypes()[0].isPrimitive()));
+			return true;
+		}catch (ReflectiveOperationException | RuntimeException e) {
+			return false;
+		}
+	}
+
+	Object materialize(Object value) {
+		if(!(value instanceof Map)) {
+			if(value == null || type.isInstance(value)) {
+				return value;
+			}
+			return SchemaBuilder.MAPPER.convertValue(value, javaType);
+		}
+		try {
+			Object target = (Object) constructor.invokeExact();
+			for(var entry: ((Map<?, ?>) value).entrySet()) {
+				var setter = setters.get(entry.getKey());
+				//also skips __typename
+				if(setter == null) {
+					continue;
+				}
+				Object argument = setter.converter.apply(entry.getValue());
+				if(argument == null && setter.primitive) {
+					continue;
+				}
+				setter.handle.invokeExact(target, argument);
+			}
+			return target;
+		}catch (RuntimeException | Error e) {
+			throw e;
+		}catch (Throwable e) {
+			throw new RuntimeException("Failed to build input " + type, e);
+		}
+	}
+
+	private static boolean hasJacksonAnnotation(AnnotatedElement element) {
+		for(Annotation annotation: element.getAnnotations()) {
+			if(annotation.annotationType().getName().startsWith("com.fasterxml.jackson")) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Converts a value graphql has coerced into the declared java type. Input entities are built with
+	 * their {@link InputMaterializer} when one exists, everything else graphql has already produced so
+	 * is passed through unless the type does not line up.
+	 *
+	 * @param genericType the declared java type
+	 * @param meta the resolved type, used to find the leaf class and input name
+	 */
+	static Function<Object, Object> converter(EntityProcessor entityProcessor, Type genericType, TypeMeta meta) {
+		int depth = meta.getFlags().size();
+		String inputName = null;
+		if(depth(genericType) == depth && isInputEntity(meta.getType())) {
+			inputName = meta.getInputName();
+		}
+		return converter(entityProcessor, genericType, depth, meta.getType(), inputName);
+	}
+
+	/**
+	 * @param depth number of containers around the leaf type
+	 * @param inputName name of the input type when the leaf is an input entity
+	 */
+	static Function<Object, Object> converter(EntityProcessor entityProcessor, Type genericType, int depth, Class<?> leaf, String inputName) {
+		if(depth(genericType) != depth) {
+			//generic variable hides a container, let jackson work it out
+			return jackson(genericType);
+		}
+		return converter(entityProcessor, genericType, leaf, inputName);
+	}
+
+	static boolean isInputEntity(Class<?> leaf) {
+		return leaf.isAnnotationPresent(Entity.class) && !leaf.isEnum();
+	}
+
+	private static Function<Object, Object> converter(EntityProcessor entityProcessor, Type genericType, Class<?> leaf, String inputName) {
+		var raw = raw(genericType);
+		if(Optional.class.equals(raw)) {
+			var inner = converter(entityProcessor, ((ParameterizedType) genericType).getActualTypeArguments()[0], leaf, inputName);
+			return obj -> {
+				if(obj == null) {
+					return Optional.empty();
+				}
+				return Optional.of(inner.apply(obj));
+			};
+		}
+		if(Collection.class.isAssignableFrom(raw)) {
+			Supplier<Collection<Object>> factory;
+			if(raw.isAssignableFrom(ArrayList.class)) {
+				factory = ArrayList::new;
+			}else if(raw.isAssignableFrom(LinkedHashSet.class)) {
+				factory = LinkedHashSet::new;
+			}else {
+				return jackson(genericType);
+			}
+			var inner = converter(entityProcessor, ((ParameterizedType) genericType).getActualTypeArguments()[0], leaf, inputName);
+			var fallback = jackson(genericType);
+			return obj -> {
+				if(obj == null) {
+					return null;
+				}
+				if(!(obj instanceof Collection)) {
+					return fallback.apply(obj);
+				}
+				var values = (Collection<?>) obj;
+				var toReturn = factory.get();
+				for(var value: values) {
+					toReturn.add(inner.apply(value));
+				}
+				return toReturn;
+			};
+		}
+		if(raw.isArray() || genericType instanceof GenericArrayType) {
+			return jackson(genericType);
+		}
+
+		Type target = concrete(genericType) ? genericType : leaf;
+		if(isInputEntity(leaf)) {
+			String name = inputName;
+			var fallback = jackson(target);
+			return new Function<>() {
+				//looked up on first use as recursive types are not built yet
+				private Function<Object, Object> resolved;
+
+				@Override
+				public Object apply(Object obj) {
+					var resolved = this.resolved;
+					if(resolved == null) {
+						var materializer = entityProcessor.getMaterializer(name);
+						if(materializer == null) {
+							resolved = fallback;
+						}else {
+							resolved = materializer::materialize;
+						}
+						this.resolved = resolved;
+					}
+					return resolved.apply(obj);
+				}
+			};
+		}
+
+		//graphql has already coerced scalars and enums so most of the time this is a pass through
+		var boxed = box(leaf);
+		var fallback = jackson(target);
+		return obj -> {
+			if(obj == null || boxed.isInstance(obj)) {
+				return obj;
+			}
+			return fallback.apply(obj);
+		};
+	}
+
+	private static Function<Object, Object> jackson(Type type) {
+		JavaType javaType = SchemaBuilder.MAPPER.getTypeFactory().constructType(type);
+		return obj -> SchemaBuilder.MAPPER.convertValue(obj, javaType);
+	}
+
+	private static int depth(Type type) {
+		var raw = raw(type);
+		if(Optional.class.equals(raw) || Collection.class.isAssignableFrom(raw)) {
+			if(type instanceof ParameterizedType) {
+				return 1 + depth(((ParameterizedType) type).getActualTypeArguments()[0]);
+			}
+			return -1;
+		}
+		if(raw.isArray()) {
+			return 1 + depth(raw.getComponentType());
+		}
+		if(type instanceof GenericArrayType) {
+			return 1 + depth(((GenericArrayType) type).getGenericComponentType());
+		}
+		return 0;
+	}
+
+	private static boolean concrete(Type type) {
+		if(type instanceof Class) {
+			return true;
+		}
+		if(type instanceof ParameterizedType) {
+			for(var argument: ((ParameterizedType) type).getActualTypeArguments()) {
+				if(!concrete(argument)) {
+					return false;
+				}
+			}
+			return true;
+		}
+		return false;
+	}
+
+	static Class<?> raw(Type type) {
+		if(type instanceof Class) {
+			return (Class<?>) type;
+		}else if(type instanceof ParameterizedType) {
+			return (Class<?>) ((ParameterizedType) type).getRawType();
+		}else if(type instanceof GenericArrayType) {
+			return Object[].class;
+		}
+		return Object.class;
+	}
+
+	static Class<?> box(Class<?> type) {
+		if(!type.isPrimitive()) {
+			return type;
+		}
+		if(type == Boolean.TYPE) {
+			return Boolean.class;
+		}else if(type == Integer.TYPE) {
+			return Integer.class;
+		}else if(type == Long.TYPE) {
+			return Long.class;
+		}else if(type == Double.TYPE) {
+			return Double.class;
+		}else if(type == Float.TYPE) {
+			return Float.class;
+		}else if(type == Short.TYPE) {
+			return Short.class;
+		}else if(type == Byte.TYPE) {
+			return Byte.class;
+		}else if(type == Character.TYPE) {
+			return Character.class;
+		}
+		return type;
+	}
+
+	private static class Setter {
+		private final MethodHandle handle;
+		private final Function<Object, Object> converter;
+		private final boolean primitive;
+
+		private Setter(MethodHandle handle, Function<Object, Object> converter, boolean primitive) {
+			this.handle = handle;
+			this.converter = converter;
+			this.primitive = primitive;
+		}
+	}
+}
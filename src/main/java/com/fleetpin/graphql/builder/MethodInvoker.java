@@ -0,0 +1,81 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.fleetpin.graphql.builder;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Calls a method through a {@link MethodHandle} that is resolved once when the schema is built.
+ * Avoids the access checks and argument array copies {@link Method#invoke} does on every call.
+ */
+final class MethodInvoker {
+
+	private static final MethodType INVOKE_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+	private final Method method;
+	private final MethodHandle handle;
+
+	private MethodInvoker(Method method, MethodHandle handle) {
+		this.method = method;
+		this.handle = handle;
+	}
+
+	public static MethodInvoker build(Method method) {
+		MethodHandle handle = unreflect(method).asFixedArity();
+		int count = method.getParameterCount();
+		if(Modifier.isStatic(method.getModifiers())) {
+			handle = handle.asType(MethodType.genericMethodType(count)).asSpreader(Object[].class, count);
+			handle = MethodHandles.dropArguments(handle, 0, Object.class);
+		}else {
+			handle = handle.asType(MethodType.genericMethodType(count + 1)).asSpreader(Object[].class, count);
+		}
+		return new MethodInvoker(method, handle.asType(INVOKE_TYPE));
+	}
+
+	private static MethodHandle unreflect(Method method) {
+		var lookup = MethodHandles.lookup();
+		try {
+			return lookup.unreflect(method);
+		}catch (IllegalAccessException e) {
+			//public method on a class we can not see, same access Method.invoke would need
+			try {
+				method.setAccessible(true);
+				return lookup.unreflect(method);
+			}catch (IllegalAccessException | RuntimeException e1) {
+				throw new RuntimeException("Can not access method " + method, e1);
+			}
+		}
+	}
+
+	/**
+	 * @param target the object to call the method on, ignored for static methods
+	 * @param args must be the same length as the parameters of the method
+	 */
+	public Object invoke(Object target, Object[] args) throws Exception {
+		try {
+			return handle.invokeExact(target, args);
+		}catch (Exception | Error e) {
+			throw e;
+		}catch (Throwable e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	public Method getMethod() {
+		return method;
+	}
+}
@@ -0,0 +1,77 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.fleetpin.graphql.builder;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import graphql.GraphQLContext;
+import graphql.schema.DataFetchingEnvironment;
+
+/**
+ * Values that live for a single operation. Stored on the {@link GraphQLContext} which graphql-java creates
+ * for each execution so nothing leaks between requests and there is no shared lock between them.
+ */
+final class OperationCache {
+
+	private static final Object KEY = new Object() {
+		@Override
+		public String toString() {
+			return OperationCache.class.getName();
+		}
+	};
+
+	private OperationCache() {
+	}
+
+	/**
+	 * Creates the value outside the map, it can be a user method that blocks or uses the cache itself. Two fields
+	 * asking at once may both create it, the first stored is the one both get.
+	 */
+	@SuppressWarnings("unchecked")
+	static <K, V> V computeIfAbsent(DataFetchingEnvironment env, K key, Function<? super K, ? extends V> create) {
+		var cache = get(env.getGraphQlContext());
+		if(cache == null) {
+			return create.apply(key);
+		}
+		var value = (V) cache.get(key);
+		if(value != null) {
+			return value;
+		}
+		value = create.apply(key);
+		if(value == null) {
+			return null;
+		}
+		var existing = (V) cache.putIfAbsent(key, value);
+		return existing != null ? existing : value;
+	}
+
+	private static ConcurrentMap<Object, Object> get(GraphQLContext context) {
+		if(context == null) {
+			return null;
+		}
+		ConcurrentMap<Object, Object> cache = context.get(KEY);
+		if(cache == null) {
+			//only contended by the first fields of an operation
+			synchronized (context) {
+				cache = context.get(KEY);
+				if(cache == null) {
+					cache = new ConcurrentHashMap<>();
+					context.put(KEY, cache);
+				}
+			}
+		}
+		return cache;
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Operations clients can run by id rather than sending the query text, using the apollo
+ * {@code extensions.persistedQuery.sha256Hash} field. Queries can be registered up front or learned from
+ * clients that send the hash with the query. Once locked only known ids are run.
+ */
+public final class PersistedQueries {
+
+	private final Map<String, String> queries;
+	private volatile boolean learning;
+	private volatile boolean locked;
+
+	public PersistedQueries() {
+		this.queries = new ConcurrentHashMap<>();
+	}
+
+	public PersistedQueries register(String id, String query) {
+		queries.put(id, query);
+		return this;
+	}
+
+	public PersistedQueries registerAll(Map<String, String> queries) {
+		this.queries.putAll(queries);
+		return this;
+	}
+
+	/**
+	 * Store queries clients send along with their hash so later requests only need the hash.
+	 */
+	public PersistedQueries learn() {
+		this.learning = true;
+		return this;
+	}
+
+	/**
+	 * Stop learning and reject any operation that is not already known.
+	 */
+	public PersistedQueries lock() {
+		this.locked = true;
+		this.learning = false;
+		return this;
+	}
+
+	public boolean isLocked() {
+		return locked;
+	}
+
+	/**
+	 * @return copy of the known queries by id, can be saved and registered on the next start
+	 */
+	public Map<String, String> getQueries() {
+		return Map.copyOf(queries);
+	}
+
+	String get(String id) {
+		return queries.get(id);
+	}
+
+	boolean isLearning() {
+		return learning;
+	}
+
+	void learned(String id, String query) {
+		queries.putIfAbsent(id, query);
+	}
+
+	public static String hash(String query) {
+		try {
+			var digest = MessageDigest.getInstance("SHA-256").digest(query.getBytes(StandardCharsets.UTF_8));
+			var hex = new StringBuilder(digest.length * 2);
+			for(byte b: digest) {
+				hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+			}
+			return hex.toString();
+		}catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException("SHA-256 not supported", e);
+		}
+	}
+}
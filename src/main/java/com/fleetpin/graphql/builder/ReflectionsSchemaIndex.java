@@ -0,0 +1,89 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.fleetpin.graphql.builder;
+
+import java.lang.reflect.Method;
+import java.util.Set;
+
+import org.reflections.Reflections;
+import org.reflections.scanners.MethodAnnotationsScanner;
+import org.reflections.scanners.SubTypesScanner;
+import org.reflections.scanners.TypeAnnotationsScanner;
+
+import com.fleetpin.graphql.builder.annotations.Directive;
+import com.fleetpin.graphql.builder.annotations.Entity;
+import com.fleetpin.graphql.builder.annotations.Mutation;
+import com.fleetpin.graphql.builder.annotations.Query;
+import com.fleetpin.graphql.builder.annotations.Restrict;
+import com.fleetpin.graphql.builder.annotations.Restricts;
+import com.fleetpin.graphql.builder.annotations.Scalar;
+import com.fleetpin.graphql.builder.annotations.Subscription;
+
+class ReflectionsSchemaIndex implements SchemaIndex {
+
+	private final Reflections reflections;
+
+	ReflectionsSchemaIndex(String... classPath) {
+		this.reflections = new Reflections(classPath, new SubTypesScanner(), new MethodAnnotationsScanner(), new TypeAnnotationsScanner());
+	}
+
+	@Override
+	public Set<Class<? extends Authorizer>> getAuthorizers() {
+		return reflections.getSubTypesOf(Authorizer.class);
+	}
+
+	@Override
+	public Set<Class<? extends SchemaConfiguration>> getSchemaConfigurations() {
+		return reflections.getSubTypesOf(SchemaConfiguration.class);
+	}
+
+	@Override
+	public Set<Class<?>> getDirectives() {
+		return reflections.getTypesAnnotatedWith(Directive.class);
+	}
+
+	@Override
+	public Set<Class<?>> getRestrict() {
+		return reflections.getTypesAnnotatedWith(Restrict.class);
+	}
+
+	@Override
+	public Set<Class<?>> getRestricts() {
+		return reflections.getTypesAnnotatedWith(Restricts.class);
+	}
+
+	@Override
+	public Set<Class<?>> getEntities() {
+		return reflections.getTypesAnnotatedWith(Entity.class);
+	}
+
+	@Override
+	public Set<Class<?>> getScalars() {
+		return reflections.getTypesAnnotatedWith(Scalar.class);
+	}
+
+	@Override
+	public Set<Method> getQueries() {
+		return reflections.getMethodsAnnotatedWith(Query.class);
+	}
+
+	@Override
+	public Set<Method> getMutations() {
+		return reflections.getMethodsAnnotatedWith(Mutation.class);
+	}
+
+	@Override
+	public Set<Method> getSubscriptions() {
+		return reflections.getMethodsAnnotatedWith(Subscription.class);
+	}
+}
@@ -13,32 +13,72 @@
 package com.fleetpin.graphql.builder;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 public interface RestrictType<T> {
 
 	public CompletableFuture<Boolean> allow(T obj);
-	
-	public default CompletableFuture<List<T>> filter(List<T> list) {
-		
-		boolean[] keep = new boolean[list.size()];
-		
-		CompletableFuture<?>[] all = new CompletableFuture[list.size()];
+
+	/**
+	 * Checks a whole list in one go. The default calls {@link #allow(Object)} for each entry, override it when
+	 * the answer can come from a single lookup.
+	 *
+	 * @return bit i is set when entry i of the list is allowed
+	 */
+	public default CompletableFuture<BitSet> allowAll(List<T> list) {
+		BitSet allowed = new BitSet(list.size());
+		int[] pendingIndex = null;
+		CompletableFuture<Boolean>[] pending = null;
+		int pendingCount = 0;
 		for(int i = 0; i < list.size(); i++) {
-			int offset = i;
-			all[i] = allow(list.get(i)).thenAccept(allow -> keep[offset] = allow);
+			var allow = allow(list.get(i));
+			if(allow.isDone() && !allow.isCompletedExceptionally()) {
+				if(Boolean.TRUE.equals(allow.join())) {
+					allowed.set(i);
+				}
+				continue;
+			}
+			if(pending == null) {
+				pendingIndex = new int[list.size() - i];
+				pending = new CompletableFuture[list.size() - i];
+			}
+			pendingIndex[pendingCount] = i;
+			pending[pendingCount++] = allow;
+		}
+		if(pendingCount == 0) {
+			return CompletableFuture.completedFuture(allowed);
 		}
-		return CompletableFuture.allOf(all).thenApply(__ -> {
-			List<T> toReturn = new ArrayList<>();
-			for(int i = 0; i < list.size(); i++) {
-				if(keep[i]) {
-					toReturn.add(list.get(i));
+		var index = pendingIndex;
+		int count = pendingCount;
+		//later entries may have been done already, leaving the tail empty
+		var futures = Arrays.copyOf(pending, count);
+		return CompletableFuture.allOf(futures).thenApply(__ -> {
+			for(int i = 0; i < count; i++) {
+				if(Boolean.TRUE.equals(futures[i].join())) {
+					allowed.set(index[i]);
 				}
 			}
+			return allowed;
+		});
+	}
+
+	public default CompletableFuture<List<T>> filter(List<T> list) {
+		if(list.isEmpty()) {
+			return CompletableFuture.completedFuture(list);
+		}
+		return allowAll(list).thenApply(allowed -> {
+			if(allowed.nextClearBit(0) >= list.size()) {
+				return list;
+			}
+			List<T> toReturn = new ArrayList<>(allowed.cardinality());
+			for(int i = allowed.nextSetBit(0); i >= 0 && i < list.size(); i = allowed.nextSetBit(i + 1)) {
+				toReturn.add(list.get(i));
+			}
 			return toReturn;
 		});
 	}
-	
-	
+
 }
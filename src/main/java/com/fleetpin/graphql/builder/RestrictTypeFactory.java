@@ -16,10 +16,27 @@ import java.lang.reflect.ParameterizedType;
 import java.util.concurrent.CompletableFuture;
 
 import graphql.schema.DataFetchingEnvironment;
+import io.reactivex.rxjava3.core.Flowable;
 
 public interface RestrictTypeFactory<T> {
 	public CompletableFuture<RestrictType<T>> create(DataFetchingEnvironment context);
 
+	/**
+	 * Maximum number of checks in flight for a subscription. Upstream is only asked for more events as
+	 * checks complete so a burst does not queue unbounded work.
+	 */
+	default int publisherConcurrency() {
+		return Flowable.bufferSize();
+	}
+
+	/**
+	 * When true subscription events are emitted in the order they were published, otherwise they are
+	 * emitted as soon as their check completes.
+	 */
+	default boolean publisherOrdered() {
+		return false;
+	}
+
 	default Class<T> extractType() {
 		for(var inter: getClass().getGenericInterfaces()) {
 			if(inter instanceof ParameterizedType) {
@@ -0,0 +1,460 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import com.fleetpin.graphql.builder.annotations.CacheTags;
+import com.fleetpin.graphql.builder.annotations.Invalidates;
+
+import graphql.ExecutionResult;
+import graphql.execution.ExecutionContext;
+import graphql.language.AstPrinter;
+import graphql.language.Field;
+import graphql.language.FragmentSpread;
+import graphql.language.InlineFragment;
+import graphql.language.OperationDefinition;
+import graphql.language.Selection;
+import graphql.language.SelectionSet;
+import graphql.schema.GraphQLAppliedDirective;
+import graphql.schema.GraphQLDirectiveContainer;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLFieldsContainer;
+import graphql.schema.GraphQLType;
+import graphql.schema.GraphQLTypeUtil;
+
+/**
+ * Keeps the results of queries tagged with {@link CacheTags}, keyed by the printed document, the variables and
+ * the scope taken from the context. Mutations marked {@link Invalidates} drop the results sharing a tag when
+ * they complete. Only results without errors are kept and they are shared, so must not be modified.
+ *
+ * <pre>
+ * ResultCache cache = ResultCache.builder().scope(context -&gt; ((ApiContext) context).getUserId()).build();
+ * GraphQL graphql = GraphQLFactory.builder(schema).resultCache(cache).build();
+ * </pre>
+ */
+public final class ResultCache {
+
+	private static final Plan UNCACHED = new Plan(null, Set.of(), 0, List.of());
+
+	private final int maxEntries;
+	private final Function<Object, Object> scope;
+
+	private final ConcurrentMap<Key, Entry> entries;
+	//the sets are only changed inside compute so a tag and its keys always move together
+	private final ConcurrentMap<String, Set<Key>> byTag;
+	private final ConcurrentMap<String, AtomicLong> versions;
+	//by identity, the same definition comes back while the document cache holds it
+	private final ConcurrentMap<OperationDefinition, Plan> plans;
+	private final AtomicLong clock;
+	private final ReentrantLock evicting;
+
+	private ResultCache(int maxEntries, Function<Object, Object> scope) {
+		this.maxEntries = maxEntries;
+		this.scope = scope;
+		this.entries = new ConcurrentHashMap<>();
+		this.byTag = new ConcurrentHashMap<>();
+		this.versions = new ConcurrentHashMap<>();
+		this.plans = new ConcurrentHashMap<>();
+		this.clock = new AtomicLong();
+		this.evicting = new ReentrantLock();
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Drops every result carrying any of the tags. Called for mutations marked {@link Invalidates}, can also
+	 * be called for changes made outside of graphql.
+	 */
+	public void invalidate(String... tags) {
+		invalidate(List.of(tags));
+	}
+
+	void invalidate(List<String> tags) {
+		for(var tag: tags) {
+			//bumped before removing so a result being stored at the same time sees it and drops itself
+			version(tag).incrementAndGet();
+			var keys = byTag.remove(tag);
+			if(keys != null) {
+				for(var key: keys) {
+					remove(key);
+				}
+			}
+		}
+	}
+
+	Plan plan(ExecutionContext context) {
+		var operation = context.getOperationDefinition();
+		var plan = plans.get(operation);
+		if(plan == null) {
+			plan = buildPlan(context);
+			//without a document cache every request brings a new definition, start again rather than grow
+			if(plans.size() >= maxEntries) {
+				plans.clear();
+			}
+			plans.put(operation, plan);
+		}
+		return plan;
+	}
+
+	Key key(ExecutionContext context, Plan plan) {
+		return new Key(plan.document, context.getExecutionInput().getVariables(), scope.apply(context.getContext()));
+	}
+
+	ExecutionResult get(Key key) {
+		var entry = entries.get(key);
+		if(entry == null) {
+			return null;
+		}
+		if(System.nanoTime() - entry.created > entry.ttl) {
+			remove(key, entry);
+			return null;
+		}
+		entry.used = clock.incrementAndGet();
+		return entry.result;
+	}
+
+	/**
+	 * Taken before executing, a result is not stored if one of its tags was invalidated in the meantime.
+	 */
+	Map<String, Long> versions(Plan plan) {
+		var current = new HashMap<String, Long>();
+		for(var tag: plan.tags) {
+			current.put(tag, version(tag).get());
+		}
+		return current;
+	}
+
+	void put(Key key, Plan plan, Map<String, Long> started, ExecutionResult result) {
+		var entry = new Entry(result, System.nanoTime(), plan.ttl, plan.tags, clock.incrementAndGet());
+		var previous = entries.put(key, entry);
+		if(previous != null) {
+			untag(key, previous);
+		}
+		for(var tag: plan.tags) {
+			byTag.compute(tag, (t, keys) -> {
+				if(keys == null) {
+					keys = new HashSet<>();
+				}
+				keys.add(key);
+				return keys;
+			});
+		}
+		//checked once tagged, an invalidation either sees the key or has already bumped the version
+		for(var tag: plan.tags) {
+			if(started.get(tag) != version(tag).get()) {
+				remove(key, entry);
+				return;
+			}
+		}
+		if(entries.size() > maxEntries && evicting.tryLock()) {
+			try {
+				evict();
+			}finally {
+				evicting.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Drops the least recently used tenth of the entries, so the scan happens once per that many stores
+	 * rather than on each of them.
+	 */
+	private void evict() {
+		int excess = entries.size() - maxEntries;
+		if(excess <= 0) {
+			return;
+		}
+		int target = Math.max(excess, maxEntries / 10);
+		var candidates = new ArrayList<Map.Entry<Key, Entry>>(entries.entrySet());
+		candidates.sort((a, b) -> Long.compare(a.getValue().used, b.getValue().used));
+		for(int i = 0; i < target && i < candidates.size(); i++) {
+			var candidate = candidates.get(i);
+			remove(candidate.getKey(), candidate.getValue());
+		}
+	}
+
+	private AtomicLong version(String tag) {
+		var version = versions.get(tag);
+		if(version == null) {
+			version = versions.computeIfAbsent(tag, t -> new AtomicLong());
+		}
+		return version;
+	}
+
+	private void remove(Key key) {
+		var entry = entries.remove(key);
+		if(entry != null) {
+			untag(key, entry);
+		}
+	}
+
+	private void remove(Key key, Entry entry) {
+		if(entries.remove(key, entry)) {
+			untag(key, entry);
+		}
+	}
+
+	private void untag(Key key, Entry entry) {
+		for(var tag: entry.tags) {
+			byTag.computeIfPresent(tag, (t, keys) -> {
+				keys.remove(key);
+				return keys.isEmpty() ? null : keys;
+			});
+		}
+	}
+
+	private static Plan buildPlan(ExecutionContext context) {
+		var operation = context.getOperationDefinition();
+		var schema = context.getGraphQLSchema();
+		if(operation.getOperation() == OperationDefinition.Operation.MUTATION) {
+			var invalidates = new ArrayList<String>();
+			for(var selection: operation.getSelectionSet().getSelections()) {
+				//mutations can only sensibly be called directly
+				if(selection instanceof Field) {
+					var field = schema.getMutationType().getFieldDefinition(((Field) selection).getName());
+					if(field != null) {
+						invalidates.addAll(tags(field.getAppliedDirective(Invalidates.class.getSimpleName())));
+					}
+				}
+			}
+			return new Plan(null, Set.of(), 0, invalidates);
+		}
+		if(operation.getOperation() != OperationDefinition.Operation.QUERY) {
+			return UNCACHED;
+		}
+		var collector = new Collector(context);
+		for(var field: collector.fields(schema.getQueryType(), operation.getSelectionSet())) {
+			if(field.getName().startsWith("__")) {
+				continue;
+			}
+			//without tags there is no way to know when the field changes
+			if(!collector.add(field) & !collector.add(GraphQLTypeUtil.unwrapAll(field.getType()))) {
+				return UNCACHED;
+			}
+		}
+		if(collector.tags.isEmpty()) {
+			return UNCACHED;
+		}
+		collector.walk(schema.getQueryType(), operation.getSelectionSet());
+		String document = AstPrinter.printAstCompact(context.getDocument()) + "#" + operation.getName();
+		return new Plan(document, Set.copyOf(collector.tags), TimeUnit.SECONDS.toNanos(collector.ttl), List.of());
+	}
+
+	private static List<String> tags(GraphQLAppliedDirective directive) {
+		if(directive == null) {
+			return List.of();
+		}
+		return directive.getArgument("value").getValue();
+	}
+
+	/**
+	 * Goes through the selections of an operation collecting the tags of every field and type it reaches.
+	 */
+	private static class Collector {
+		private final ExecutionContext context;
+		private final Set<String> tags = new HashSet<>();
+		private final Set<String> fragments = new HashSet<>();
+		private long ttl = Long.MAX_VALUE;
+
+		private Collector(ExecutionContext context) {
+			this.context = context;
+		}
+
+		private boolean add(Object container) {
+			if(!(container instanceof GraphQLDirectiveContainer)) {
+				return false;
+			}
+			var directive = ((GraphQLDirectiveContainer) container).getAppliedDirective(CacheTags.class.getSimpleName());
+			if(directive == null) {
+				return false;
+			}
+			tags.addAll(tags(directive));
+			int seconds = directive.getArgument("ttl").getValue();
+			ttl = Math.min(ttl, seconds);
+			return true;
+		}
+
+		/**
+		 * The top level fields, through fragments
+		 */
+		private List<GraphQLFieldDefinition> fields(GraphQLType type, SelectionSet selectionSet) {
+			var fields = new ArrayList<GraphQLFieldDefinition>();
+			for(Selection<?> selection: selectionSet.getSelections()) {
+				if(selection instanceof Field) {
+					var field = ((GraphQLFieldsContainer) type).getFieldDefinition(((Field) selection).getName());
+					if(field != null) {
+						fields.add(field);
+					}
+				}else if(selection instanceof InlineFragment) {
+					fields.addAll(fields(type, ((InlineFragment) selection).getSelectionSet()));
+				}else if(selection instanceof FragmentSpread) {
+					var fragment = context.getFragment(((FragmentSpread) selection).getName());
+					if(fragment != null) {
+						fields.addAll(fields(type, fragment.getSelectionSet()));
+					}
+				}
+			}
+			return fields;
+		}
+
+		private void walk(GraphQLType type, SelectionSet selectionSet) {
+			if(selectionSet == null) {
+				return;
+			}
+			for(Selection<?> selection: selectionSet.getSelections()) {
+				if(selection instanceof Field) {
+					if(!(type instanceof GraphQLFieldsContainer)) {
+						continue;
+					}
+					var field = ((GraphQLFieldsContainer) type).getFieldDefinition(((Field) selection).getName());
+					if(field == null) {
+						continue;
+					}
+					var fieldType = GraphQLTypeUtil.unwrapAll(field.getType());
+					add(field);
+					add(fieldType);
+					walk(fieldType, ((Field) selection).getSelectionSet());
+				}else if(selection instanceof InlineFragment) {
+					var fragment = (InlineFragment) selection;
+					var condition = fragment.getTypeCondition() == null ? type : context.getGraphQLSchema().getType(fragment.getTypeCondition().getName());
+					add(condition);
+					walk(condition, fragment.getSelectionSet());
+				}else if(selection instanceof FragmentSpread) {
+					var fragment = context.getFragment(((FragmentSpread) selection).getName());
+					if(fragment != null && fragments.add(fragment.getName())) {
+						var condition = context.getGraphQLSchema().getType(fragment.getTypeCondition().getName());
+						add(condition);
+						walk(condition, fragment.getSelectionSet());
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * What an operation means for the cache, worked out once per parsed operation.
+	 */
+	static class Plan {
+		private final String document;
+		private final Set<String> tags;
+		private final long ttl;
+		private final List<String> invalidates;
+
+		private Plan(String document, Set<String> tags, long ttl, List<String> invalidates) {
+			this.document = document;
+			this.tags = tags;
+			this.ttl = ttl;
+			this.invalidates = invalidates;
+		}
+
+		boolean isCached() {
+			return document != null;
+		}
+
+		List<String> getInvalidates() {
+			return invalidates;
+		}
+	}
+
+	static class Key {
+		private final String document;
+		private final Map<String, Object> variables;
+		private final Object scope;
+		private final int hashCode;
+
+		private Key(String document, Map<String, Object> variables, Object scope) {
+			this.document = document;
+			this.variables = variables;
+			this.scope = scope;
+			this.hashCode = Objects.hash(document, variables, scope);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(this == obj) {
+				return true;
+			}
+			if(!(obj instanceof Key)) {
+				return false;
+			}
+			var other = (Key) obj;
+			return document.equals(other.document) && Objects.equals(variables, other.variables) && Objects.equals(scope, other.scope);
+		}
+	}
+
+	private static class Entry {
+		private final ExecutionResult result;
+		private final long created;
+		private final long ttl;
+		private final Set<String> tags;
+		//racy on purpose, eviction only needs it roughly right
+		private volatile long used;
+
+		private Entry(ExecutionResult result, long created, long ttl, Set<String> tags, long used) {
+			this.result = result;
+			this.created = created;
+			this.ttl = ttl;
+			this.tags = tags;
+			this.used = used;
+		}
+	}
+
+	public static class Builder {
+		private int maxEntries = 1000;
+		private Function<Object, Object> scope;
+
+		private Builder() {
+		}
+
+		public Builder maxEntries(int maxEntries) {
+			this.maxEntries = maxEntries;
+			return this;
+		}
+
+		/**
+		 * Separates results by who can see them, given the context of the execution. Required as a cached
+		 * result skips restrictions and authorizers, return the same value for every context only when all
+		 * callers can see the same data.
+		 */
+		public Builder scope(Function<Object, Object> scope) {
+			this.scope = scope;
+			return this;
+		}
+
+		public ResultCache build() {
+			if(scope == null) {
+				throw new IllegalStateException("scope is required, cached results skip restrictions and authorizers");
+			}
+			return new ResultCache(maxEntries, scope);
+		}
+	}
+}
@@ -0,0 +1,62 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder;
+
+import java.util.concurrent.CompletableFuture;
+
+import graphql.ExecutionResult;
+import graphql.execution.ExecutionContext;
+import graphql.execution.ExecutionStrategy;
+import graphql.execution.ExecutionStrategyParameters;
+import graphql.execution.NonNullableFieldWasNullException;
+
+/**
+ * Answers cached queries without running any fields, and invalidates tags once a mutation completes.
+ * graphql runs the query strategy again for every nested object, only the root is the whole operation.
+ */
+final class ResultCacheStrategy extends ExecutionStrategy {
+
+	private final ResultCache cache;
+	private final ExecutionStrategy delegate;
+
+	ResultCacheStrategy(ResultCache cache, ExecutionStrategy delegate) {
+		this.cache = cache;
+		this.delegate = delegate;
+	}
+
+	@Override
+	public CompletableFuture<ExecutionResult> execute(ExecutionContext context, ExecutionStrategyParameters parameters) throws NonNullableFieldWasNullException {
+		if(!parameters.getPath().isRootPath()) {
+			return delegate.execute(context, parameters);
+		}
+		var plan = cache.plan(context);
+		if(!plan.getInvalidates().isEmpty()) {
+			//also on failure, it may have made some of its changes
+			return delegate.execute(context, parameters).whenComplete((result, error) -> cache.invalidate(plan.getInvalidates()));
+		}
+		if(!plan.isCached()) {
+			return delegate.execute(context, parameters);
+		}
+		var key = cache.key(context, plan);
+		var cached = cache.get(key);
+		if(cached != null) {
+			return CompletableFuture.completedFuture(cached);
+		}
+		var versions = cache.versions(plan);
+		return delegate.execute(context, parameters).thenApply(result -> {
+			if(result.getErrors().isEmpty()) {
+				cache.put(key, plan, versions, result);
+			}
+			return result;
+		});
+	}
+}
@@ -81,7 +81,7 @@ public class SDLProcessor {
 										}
 										GraphQLArgument.Builder argument = GraphQLArgument.newArgument();
 										argument.name(name);
-										TypeMeta innerMeta = new TypeMeta(entityProcessor, null, method.getReturnType(), method.getGenericReturnType());
+										TypeMeta innerMeta = entityProcessor.typeMeta(null, method.getReturnType(), method.getGenericReturnType());
 										var argumentType = SchemaBuilder.getInputType(innerMeta, method.getAnnotations());
 										argument.type(argumentType);
 										builder.argument(argument);
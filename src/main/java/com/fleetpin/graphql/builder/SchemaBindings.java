@@ -0,0 +1,151 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.fleetpin.graphql.builder;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * What each part of the schema is bound to in java, recorded while the schema is built. Enough to wire a
+ * schema parsed from its printed form back up without resolving any types again.
+ */
+final class SchemaBindings {
+
+	//what the schema was built from
+	String[] classPath;
+	Set<Class<? extends Authorizer>> authorizers;
+	Set<Class<?>> restrict;
+	Set<Class<?>> restricts;
+	Set<Class<?>> directives;
+	Set<Class<?>> entities = Set.of();
+	Set<Class<? extends SchemaConfiguration>> configurations = Set.of();
+
+	final List<Endpoint> endpoints = new ArrayList<>();
+	final List<Getter> getters = new ArrayList<>();
+	final List<Input> inputs = new ArrayList<>();
+	final Map<String, Class<?>> interfaces = new LinkedHashMap<>();
+	final Map<String, Class<?>> enums = new LinkedHashMap<>();
+	final Map<String, Class<?>> scalars = new LinkedHashMap<>();
+
+	synchronized void endpoint(Endpoint endpoint) {
+		endpoints.add(endpoint);
+	}
+
+	synchronized void getter(Getter getter) {
+		getters.add(getter);
+	}
+
+	synchronized void input(Input input) {
+		inputs.add(input);
+	}
+
+	synchronized void interfaceType(String name, Class<?> type) {
+		interfaces.put(name, type);
+	}
+
+	synchronized void enumType(String name, Class<?> type) {
+		enums.put(name, type);
+	}
+
+	synchronized void scalar(String name, Class<?> type) {
+		scalars.put(name, type);
+	}
+
+	/**
+	 * How a value graphql has coerced is converted to the declared java type.
+	 */
+	static final class Argument {
+		final int depth;
+		final Class<?> leaf;
+		final String inputName;
+
+		Argument(int depth, Class<?> leaf, String inputName) {
+			this.depth = depth;
+			this.leaf = leaf;
+			this.inputName = inputName;
+		}
+
+		static Argument of(TypeMeta meta) {
+			String inputName = null;
+			if(InputMaterializer.isInputEntity(meta.getType())) {
+				inputName = meta.getInputName();
+			}
+			return new Argument(meta.getFlags().size(), meta.getType(), inputName);
+		}
+	}
+
+	/**
+	 * A query, mutation or subscription method.
+	 */
+	static final class Endpoint {
+		final String type;
+		final Method method;
+		final Class<?> leaf;
+		//null for context parameters
+		final Argument[] arguments;
+
+		Endpoint(String type, Method method, Class<?> leaf, Argument[] arguments) {
+			this.type = type;
+			this.method = method;
+			this.leaf = leaf;
+			this.arguments = arguments;
+		}
+	}
+
+	static final class Getter {
+		final String type;
+		final String field;
+		final Method method;
+		final boolean wrapped;
+		final Class<?> leaf;
+
+		Getter(String type, String field, Method method, boolean wrapped, Class<?> leaf) {
+			this.type = type;
+			this.field = field;
+			this.method = method;
+			this.wrapped = wrapped;
+			this.leaf = leaf;
+		}
+	}
+
+	/**
+	 * An input type that is built with an {@link InputMaterializer}.
+	 */
+	static final class Input {
+		final String name;
+		final Class<?> type;
+		final List<Setter> setters;
+
+		Input(String name, Class<?> type, List<Setter> setters) {
+			this.name = name;
+			this.type = type;
+			this.setters = setters;
+		}
+	}
+
+	static final class Setter {
+		final String field;
+		final Method method;
+		final Argument argument;
+
+		Setter(String field, Method method, Argument argument) {
+			this.field = field;
+			this.method = method;
+			this.argument = argument;
+		}
+	}
+}
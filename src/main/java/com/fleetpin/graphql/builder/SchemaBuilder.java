@@ -12,12 +12,13 @@
 
 package com.fleetpin.graphql.builder;
 
+import java.lang.System.Logger;
+import java.lang.System.Logger.Level;
 import java.lang.annotation.Annotation;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
-import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
@@ -26,21 +27,21 @@ import java.time.YearMonth;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-import org.reflections.Reflections;
-import org.reflections.scanners.MethodAnnotationsScanner;
-import org.reflections.scanners.SubTypesScanner;
-import org.reflections.scanners.TypeAnnotationsScanner;
 
 import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
@@ -48,12 +49,15 @@ import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
 import com.fleetpin.graphql.builder.TypeMeta.Flag;
+import com.fleetpin.graphql.builder.annotations.Batch;
+import com.fleetpin.graphql.builder.annotations.CacheTags;
 import com.fleetpin.graphql.builder.annotations.Context;
-import com.fleetpin.graphql.builder.annotations.Directive;
+import com.fleetpin.graphql.builder.annotations.Cost;
 import com.fleetpin.graphql.builder.annotations.Entity;
 import com.fleetpin.graphql.builder.annotations.GraphQLDeprecated;
 import com.fleetpin.graphql.builder.annotations.GraphQLDescription;
 import com.fleetpin.graphql.builder.annotations.Id;
+import com.fleetpin.graphql.builder.annotations.Invalidates;
 import com.fleetpin.graphql.builder.annotations.Mutation;
 import com.fleetpin.graphql.builder.annotations.Query;
 import com.fleetpin.graphql.builder.annotations.Restrict;
@@ -62,11 +66,13 @@ import com.fleetpin.graphql.builder.annotations.Scalar;
 import com.fleetpin.graphql.builder.annotations.SchemaOption;
 import com.fleetpin.graphql.builder.annotations.Subscription;
 
+import graphql.Directives;
 import graphql.GraphQLContext;
 import graphql.Scalars;
 import graphql.schema.DataFetcher;
 import graphql.schema.DataFetchingEnvironment;
 import graphql.schema.FieldCoordinates;
+import graphql.schema.GraphQLAppliedDirectiveArgument;
 import graphql.schema.GraphQLArgument;
 import graphql.schema.GraphQLCodeRegistry;
 import graphql.schema.GraphQLFieldDefinition;
@@ -74,14 +80,17 @@ import graphql.schema.GraphQLInputType;
 import graphql.schema.GraphQLList;
 import graphql.schema.GraphQLNonNull;
 import graphql.schema.GraphQLObjectType;
-import graphql.schema.GraphQLObjectType.Builder;
 import graphql.schema.GraphQLOutputType;
 import graphql.schema.GraphQLScalarType;
 import graphql.schema.GraphQLSchema;
 import graphql.schema.GraphQLType;
 import graphql.schema.GraphQLTypeReference;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
 
 public class SchemaBuilder {
+	private static final Logger LOGGER = System.getLogger(SchemaBuilder.class.getName());
 	public final static ObjectMapper MAPPER = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES).registerModule(new ParameterNamesModule())
 			.registerModule(new Jdk8Module())
 			.registerModule(new JavaTimeModule())
@@ -103,16 +112,20 @@ public class SchemaBuilder {
 
 	private final Map<String, GraphQLType> additionalTypes;
 	
-	private final Builder graphQuery;
-	private final Builder graphMutations;
-	private final Builder graphSubscriptions;
+	private final GraphQLObjectType.Builder graphQuery;
+	private final GraphQLObjectType.Builder graphMutations;
+	private final GraphQLObjectType.Builder graphSubscriptions;
 	
 	private final EntityProcessor entityProcessor;
+	private final SchemaBindings bindings;
+	private final ForkJoinPool pool;
 
 	
-	private SchemaBuilder(DirectivesSchema diretives, AuthorizerSchema authorizer) {
+	private SchemaBuilder(DirectivesSchema diretives, AuthorizerSchema authorizer, SchemaBindings bindings, ForkJoinPool pool, Executor blocking, FieldMetrics metrics) {
 		this.diretives = diretives;
 		this.authorizer = authorizer;
+		this.bindings = bindings;
+		this.pool = pool;
 		
 		this.graphQuery = GraphQLObjectType.newObject();
 		graphQuery.name("Query");
@@ -120,10 +133,10 @@ public class SchemaBuilder {
 		graphMutations.name("Mutations");
 		this.graphSubscriptions = GraphQLObjectType.newObject();
 		graphSubscriptions.name("Subscriptions");
-		this.additionalTypes = new HashMap<>();
+		this.additionalTypes = new ConcurrentHashMap<>();
 		this.codeRegistry = GraphQLCodeRegistry.newCodeRegistry();
 
-		this.entityProcessor = new EntityProcessor(additionalTypes, codeRegistry, diretives);
+		this.entityProcessor = new EntityProcessor(additionalTypes, codeRegistry, diretives, bindings, blocking, metrics);
 		
 		
 		diretives.processSDL(entityProcessor);
@@ -131,79 +144,123 @@ public class SchemaBuilder {
 	}
 	
 	private SchemaBuilder process(Set<Method> endPoints) throws ReflectiveOperationException {
-		for(var method: endPoints) {
-			if(!Modifier.isStatic(method.getModifiers())) {
-				throw new RuntimeException("End point must be a static method");
-			}
-			//TODO:query vs mutation
-			GraphQLFieldDefinition.Builder field = GraphQLFieldDefinition.newFieldDefinition();
-			
-			var deprecated = method.getAnnotation(GraphQLDeprecated.class);
-			if(deprecated != null) {
-				field.deprecate(deprecated.value());
-			}
-			
-			var description = method.getAnnotation(GraphQLDescription.class);
-			if(description != null) {
-				field.description(description.value());
-			}
-			
-			field.name(method.getName());
-			
-			TypeMeta meta = new TypeMeta(entityProcessor, null, method.getReturnType(), method.getGenericReturnType());
-			field.type(getType(meta, method.getAnnotations()));
-			for(int i = 0; i < method.getParameterCount(); i++) {
-				GraphQLArgument.Builder argument = GraphQLArgument.newArgument();
-				if(isContext(method.getParameterTypes()[i])) {
-					continue;
-				}
-				
-				TypeMeta inputMeta = new TypeMeta(this.entityProcessor, null, method.getParameterTypes()[i], method.getGenericParameterTypes()[i]);
-				argument.type(getInputType(inputMeta, method.getParameterAnnotations()[i]));//TODO:dirty cast
-				argument.name(method.getParameters()[i].getName());
-				//TODO: argument.defaultValue(defaultValue)
-				field.argument(argument);
+		//fields are added in the original order so the schema is the same however it was built
+		for(var built: map(new ArrayList<>(endPoints), this::endpoint)) {
+			if(built.endpoint.type.equals("Query")) {
+				graphQuery.field(built.field);
+			}else if(built.endpoint.type.equals("Mutations")) {
+				graphMutations.field(built.field);
+			}else {
+				graphSubscriptions.field(built.field);
 			}
+			bindings.endpoint(built.endpoint);
+			codeRegistry.dataFetcher(FieldCoordinates.coordinates(built.endpoint.type, built.endpoint.method.getName()), built.fetcher);
+		}
+		return this;
+	}
 
-			diretives.addSchemaDirective(method, method.getDeclaringClass(), field::withAppliedDirective);
-			if(method.isAnnotationPresent(Query.class)) {
-				graphQuery.field(field);
-
-				DataFetcher<?> fetcher = buildFetcher(diretives, authorizer, method, meta);
-				codeRegistry.dataFetcher(graphQuery.build(), field.build(), fetcher);
-			}else if(method.isAnnotationPresent(Mutation.class)) {
-				graphMutations.field(field);
-				DataFetcher<?> fetcher = buildFetcher(diretives, authorizer, method, meta);
-				codeRegistry.dataFetcher(FieldCoordinates.coordinates("Mutations", method.getName()), fetcher);
-			}else if(method.isAnnotationPresent(Subscription.class)) {
-				graphSubscriptions.field(field);
-				DataFetcher<?> fetcher = buildFetcher(diretives, authorizer, method, meta);
-				codeRegistry.dataFetcher(FieldCoordinates.coordinates("Subscriptions", method.getName()), fetcher);
+	private BuiltEndpoint endpoint(Method method) {
+		if(!Modifier.isStatic(method.getModifiers())) {
+			throw new RuntimeException("End point must be a static method");
+		}
+		//TODO:query vs mutation
+		GraphQLFieldDefinition.Builder field = GraphQLFieldDefinition.newFieldDefinition();
+		
+		var deprecated = method.getAnnotation(GraphQLDeprecated.class);
+		if(deprecated != null) {
+			deprecate(field, deprecated.value());
+		}
+		
+		var description = method.getAnnotation(GraphQLDescription.class);
+		if(description != null) {
+			field.description(description.value());
+		}
+		
+		field.name(method.getName());
+		
+		//a batch query declares the field for a single call, it takes and returns lists of them
+		boolean batch = method.isAnnotationPresent(Batch.class);
+		if(batch && !method.isAnnotationPresent(Query.class)) {
+			throw new RuntimeException("Batch is only supported on queries " + method);
+		}
+		TypeMeta meta;
+		if(batch) {
+			Type resultType = BatchFetcher.resultType(method);
+			meta = entityProcessor.typeMeta(null, BatchFetcher.raw(resultType), resultType);
+		}else {
+			meta = entityProcessor.typeMeta(null, method.getReturnType(), method.getGenericReturnType());
+		}
+		field.type(getType(meta, method.getAnnotations()));
+		var arguments = new SchemaBindings.Argument[method.getParameterCount()];
+		for(int i = 0; i < method.getParameterCount(); i++) {
+			GraphQLArgument.Builder argument = GraphQLArgument.newArgument();
+			if(isContext(method.getParameterTypes()[i])) {
+				continue;
 			}
 			
+			TypeMeta inputMeta;
+			if(batch) {
+				Type argumentType = BatchFetcher.argumentType(method, i);
+				inputMeta = this.entityProcessor.typeMeta(null, BatchFetcher.raw(argumentType), argumentType);
+			}else {
+				inputMeta = this.entityProcessor.typeMeta(null, method.getParameterTypes()[i], method.getGenericParameterTypes()[i]);
+			}
+			argument.type(getInputType(inputMeta, method.getParameterAnnotations()[i]));//TODO:dirty cast
+			arguments[i] = SchemaBindings.Argument.of(inputMeta);
+			argument.name(method.getParameters()[i].getName());
+			//TODO: argument.defaultValue(defaultValue)
+			field.argument(argument);
+		}
 
+		diretives.addSchemaDirective(method, method.getDeclaringClass(), field::withAppliedDirective);
+		String type;
+		if(method.isAnnotationPresent(Query.class)) {
+			type = "Query";
+		}else if(method.isAnnotationPresent(Mutation.class)) {
+			type = "Mutations";
+		}else if(method.isAnnotationPresent(Subscription.class)) {
+			type = "Subscriptions";
+		}else {
+			return null;
 		}
-		return this;
+		var endpoint = new SchemaBindings.Endpoint(type, method, meta.getType(), arguments);
+		return new BuiltEndpoint(field.build(), endpoint, buildFetcher(diretives, authorizer, entityProcessor, endpoint));
 	}
 	
 	private SchemaBuilder processTypes(Set<Class<?>> types) {
-		for(var type: types) {
-			TypeMeta meta = new TypeMeta(this.entityProcessor, null, type, type);
+		map(new ArrayList<>(types), type -> {
+			TypeMeta meta = this.entityProcessor.typeMeta(null, type, type);
 			
 			var annotation = type.getAnnotation(Entity.class);
 			if(annotation.value() != SchemaOption.INPUT) {
-				this.entityProcessor.process(meta);
+				meta.getName();
 			}
-			
-		}
+			return null;
+		});
 		return this;
 	}
 
+	/**
+	 * Runs on the pool when building in parallel. Types that are already being built by another task are only
+	 * referred to by name so nothing has to wait for them.
+	 *
+	 * @return the results in the same order as the values, skipping nulls
+	 */
+	private <T, R> List<R> map(List<T> values, Function<T, R> function) {
+		Stream<R> results;
+		if(pool == null) {
+			results = values.stream().map(function);
+		}else {
+			results = pool.submit(() -> values.parallelStream().map(function).collect(Collectors.toList())).join().stream();
+		}
+		return results.filter(Objects::nonNull).collect(Collectors.toList());
+	}
+
 	private GraphQLSchema build(Set<Class<? extends SchemaConfiguration>> schemaConfiguration) {
 		codeRegistry.typeResolver("ID", env -> {
 			return null;
 		});
-		var builder = GraphQLSchema.newSchema().codeRegistry(codeRegistry.build()).additionalTypes(new HashSet<>(additionalTypes.values()));
+		var builder = GraphQLSchema.newSchema().codeRegistry(codeRegistry.build()).additionalTypes(entityProcessor.getTypes());
 		
 		var query = graphQuery.build();
 		builder.query(query);
@@ -231,81 +288,61 @@ public class SchemaBuilder {
 
 	}
 
-	private static boolean isContext(Class<?> class1) {
+	/**
+	 * Also applies the directive as the printer drops the reason otherwise, which loses it from snapshots.
+	 */
+	static void deprecate(GraphQLFieldDefinition.Builder field, String reason) {
+		field.deprecate(reason);
+		var argument = GraphQLAppliedDirectiveArgument.newArgument().name("reason").type(Scalars.GraphQLString).valueProgrammatic(reason).build();
+		field.withAppliedDirective(Directives.DeprecatedDirective.toAppliedDirective().transform(directive -> directive.argument(argument)));
+	}
+
+	static boolean isContext(Class<?> class1) {
 		return class1.isAssignableFrom(GraphQLContext.class) ||  class1.isAssignableFrom(DataFetchingEnvironment.class) || class1.isAnnotationPresent(Context.class);
 	}
 
-	private static <T extends Annotation> DataFetcher<?> buildFetcher(DirectivesSchema diretives, AuthorizerSchema authorizer, Method method, TypeMeta meta) {
-		DataFetcher<?> fetcher = env -> {
-			try {
-				Object[] args = new Object[method.getParameterCount()];
-				for(int i = 0; i < args.length; i++) {
-					Class<?> type = method.getParameterTypes()[i];
-					if(type.isAssignableFrom(env.getClass())) {
-						args[i] = env;
-					}else if(type.isAssignableFrom(env.getContext().getClass())) {
-						args[i] = env.getContext();
-					}else {
-						Object obj = env.getArgument(method.getParameters()[i].getName());
-						//if they don't match use json to make them
-
-						if(obj instanceof List) {
-							var genericType = method.getGenericParameterTypes()[i];
-							args[i] = MAPPER.convertValue(obj, new TypeReference<Object>() {
-								@Override
-								public Type getType() {
-									return genericType;
-								}
-							});
-						}else if(type.isInstance(obj) ) {
-							args[i] = obj;
-						}else {
-							if(Optional.class.isAssignableFrom(type)) {
-								if(obj == null) {
-									args[i] = Optional.empty();
-								}else {
-									var genericType = method.getGenericParameterTypes()[i];
-									var t = ((ParameterizedType) genericType).getActualTypeArguments()[0];
-									args[i] = Optional.of(MAPPER.convertValue(obj, new TypeReference<Object>() {
-										@Override
-										public Type getType() {
-											return t;
-										}
-									}));
-								}
-							}else {
-								var t = method.getParameters()[i].getParameterizedType();
-								args[i] = MAPPER.convertValue(obj, new TypeReference<Object>() {
-									@Override
-									public Type getType() {
-										return t;
-									}
-								});
-							}
-						}
-					}
-				}
+	static DataFetcher<?> buildFetcher(DirectivesSchema diretives, AuthorizerSchema authorizer, EntityProcessor entityProcessor, SchemaBindings.Endpoint endpoint) {
+		var method = endpoint.method;
+		MethodInvoker invoker = MethodInvoker.build(method);
+		var batch = method.getAnnotation(Batch.class);
+		var genericTypes = method.getGenericParameterTypes();
+		ArgumentBinder[] binders = ArgumentBinder.compile(method, false, i -> {
+			var argument = endpoint.arguments[i];
+			//each call converts its own value, the batch method gets them as a list
+			var genericType = batch == null ? genericTypes[i] : BatchFetcher.argumentType(method, i);
+			return InputMaterializer.converter(entityProcessor, genericType, argument.depth, argument.leaf, argument.inputName);
+		});
 
-				return method.invoke(null, args);
-			}catch (InvocationTargetException e) {
-				e.printStackTrace();
-				if(e.getCause() instanceof Exception) {
-					throw (Exception) e.getCause();
-				}else {
+		DataFetcher<?> fetcher;
+		var subscription = method.getAnnotation(Subscription.class);
+		if(batch != null) {
+			var arguments = new boolean[binders.length];
+			for(int i = 0; i < arguments.length; i++) {
+				arguments[i] = endpoint.arguments[i] != null;
+			}
+			fetcher = BatchFetcher.build(method, batch, binders, arguments, entityProcessor.getBlockingExecutor());
+		}else if(subscription != null && subscription.shared()) {
+			//publishers are never blocking
+			fetcher = SharedSubscription.build(method, invoker, binders, subscription);
+		}else {
+			fetcher = env -> {
+				try {
+					return invoker.invoke(null, ArgumentBinder.bind(binders, env));
+				}catch (Exception e) {
+					e.printStackTrace();
 					throw e;
 				}
-
-			}catch (Exception e) {
-				e.printStackTrace();
-				throw e;
+			};
+			if(BlockingExecutor.isBlocking(method)) {
+				fetcher = BlockingExecutor.wrap(entityProcessor.getBlockingExecutor(), fetcher);
 			}
-		};
-		fetcher = diretives.wrap(method, meta, fetcher);
+		}
+		fetcher = diretives.wrap(method, endpoint.leaf, fetcher);
 
 		if(authorizer != null) {
 			fetcher = authorizer.wrap(fetcher, method);
 		}
-		return fetcher;
+		return FieldMetrics.wrap(entityProcessor.getMetrics(), FieldCoordinates.coordinates(endpoint.type, method.getName()), fetcher);
 	}
 
 
@@ -468,20 +505,80 @@ public class SchemaBuilder {
 	}
 
 	public static GraphQLSchema build(String... classPath) throws ReflectiveOperationException {
-		
-		
-		Reflections reflections = new Reflections(classPath, new SubTypesScanner(), new MethodAnnotationsScanner(), new TypeAnnotationsScanner());
-		Set<Class<? extends Authorizer>> authorizers = reflections.getSubTypesOf(Authorizer.class);
+		return builder().classpath(classPath).build();
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	private static GraphQLSchema build(String[] classPath, SchemaIndex index, SchemaBindings bindings, ForkJoinPool pool, Executor blocking, FieldMetrics metrics) throws ReflectiveOperationException {
+		Set<Class<? extends Authorizer>> authorizers = index.getAuthorizers();
 		//want to make everything split by package
 		AuthorizerSchema authorizer = AuthorizerSchema.build(new HashSet<>(Arrays.asList(classPath)), authorizers);
 
-		Set<Class<? extends SchemaConfiguration>> schemaConfiguration = reflections.getSubTypesOf(SchemaConfiguration.class);
+		Set<Class<? extends SchemaConfiguration>> schemaConfiguration = index.getSchemaConfigurations();
+		
+		
+		Set<Class<?>> types = index.getEntities();
+		
+		Set<Class<?>> scalars = index.getScalars();
 		
+		var mutations = index.getMutations();
+		var subscriptions = index.getSubscriptions();
+		var queries = index.getQueries();
 		
-		Set<Class<?>> dierctivesTypes = reflections.getTypesAnnotatedWith(Directive.class);
+		var endPoints = new HashSet<>(mutations);
+		endPoints.addAll(subscriptions);
+		endPoints.addAll(queries);
 		
-		Set<Class<?>> restrict = reflections.getTypesAnnotatedWith(Restrict.class);
-		Set<Class<?>> restricts = reflections.getTypesAnnotatedWith(Restricts.class);
+		types.removeIf(t -> t.getDeclaredAnnotation(Entity.class) == null);
+		types.removeIf(t -> t.isAnonymousClass());
+		scalars.removeIf(t -> t.isAnonymousClass());
+		
+		Set<Class<?>> dierctivesTypes = new HashSet<>(index.getDirectives());
+		//built in so it is not under the scanned packages, only declared when used so other schemas are unchanged
+		for(var builtIn: List.of(Cost.class, CacheTags.class, Invalidates.class)) {
+			if(isUsed(builtIn, endPoints, types)) {
+				dierctivesTypes.add(builtIn);
+			}
+		}
+		
+		Set<Class<?>> restrict = index.getRestrict();
+		Set<Class<?>> restricts = index.getRestricts();
+		DirectivesSchema diretivesSchema = directives(restrict, restricts, dierctivesTypes);
+
+		bindings.classPath = classPath;
+		bindings.authorizers = authorizers;
+		bindings.restrict = restrict;
+		bindings.restricts = restricts;
+		bindings.directives = dierctivesTypes;
+		bindings.entities = types;
+		bindings.configurations = schemaConfiguration;
+		
+		return new SchemaBuilder(diretivesSchema, authorizer, bindings, pool, blocking, metrics).process(endPoints).processTypes(types).build(schemaConfiguration);
+	}
+
+	private static boolean isUsed(Class<? extends Annotation> annotation, Set<Method> endPoints, Set<Class<?>> types) {
+		for(var method: endPoints) {
+			if(method.isAnnotationPresent(annotation)) {
+				return true;
+			}
+		}
+		for(var type: types) {
+			if(type.isAnnotationPresent(annotation)) {
+				return true;
+			}
+			for(var method: type.getMethods()) {
+				if(method.isAnnotationPresent(annotation)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private static DirectivesSchema directives(Set<Class<?>> restrict, Set<Class<?>> restricts, Set<Class<?>> dierctivesTypes) throws ReflectiveOperationException {
 		List<RestrictTypeFactory<?>> globalRestricts = new ArrayList<>();
 		
 		for(var r: restrict) {
@@ -507,25 +604,190 @@ public class SchemaBuilder {
 			}
 		}
 		
-		DirectivesSchema diretivesSchema = DirectivesSchema.build(globalRestricts, dierctivesTypes);
-		
-		Set<Class<?>> types = reflections.getTypesAnnotatedWith(Entity.class);
-		
-		Set<Class<?>> scalars = reflections.getTypesAnnotatedWith(Scalar.class);
-		
-		var mutations = reflections.getMethodsAnnotatedWith(Mutation.class);
-		var subscriptions = reflections.getMethodsAnnotatedWith(Subscription.class);
-		var queries = reflections.getMethodsAnnotatedWith(Query.class);
-		
-		var endPoints = new HashSet<>(mutations);
-		endPoints.addAll(subscriptions);
-		endPoints.addAll(queries);
-		
-		types.removeIf(t -> t.getDeclaredAnnotation(Entity.class) == null);
-		types.removeIf(t -> t.isAnonymousClass());
-		scalars.removeIf(t -> t.isAnonymousClass());
-		
-		return new SchemaBuilder(diretivesSchema, authorizer).process(endPoints).processTypes(types).build(schemaConfiguration);
+		return DirectivesSchema.build(globalRestricts, dierctivesTypes);
+	}
+
+	/**
+	 * Builds the schema from a snapshot, the types come from the printed schema and the fetchers from the bindings.
+	 */
+	static GraphQLSchema wire(SchemaSnapshot snapshot) throws ReflectiveOperationException {
+		return wire(snapshot, null, null);
+	}
+
+	private static GraphQLSchema wire(SchemaSnapshot snapshot, Executor blocking, FieldMetrics metrics) throws ReflectiveOperationException {
+		var bindings = snapshot.bindings;
+		AuthorizerSchema authorizer = AuthorizerSchema.build(new HashSet<>(Arrays.asList(bindings.classPath)), bindings.authorizers);
+		DirectivesSchema diretives = directives(bindings.restrict, bindings.restricts, bindings.directives);
+
+		var codeRegistry = GraphQLCodeRegistry.newCodeRegistry();
+		Map<String, GraphQLType> types = new ConcurrentHashMap<>();
+		var entityProcessor = new EntityProcessor(types, codeRegistry, diretives, new SchemaBindings(), blocking, metrics);
+
+		for(var input: bindings.inputs) {
+			var materializer = InputMaterializer.build(input.type);
+			for(var setter: input.setters) {
+				if(materializer != null && !materializer.addSetter(setter.field, setter.method, entityProcessor.converter(setter.method, setter.argument))) {
+					materializer = null;
+				}
+			}
+			if(materializer != null) {
+				entityProcessor.addMaterializer(input.name, materializer);
+			}
+		}
+		for(var endpoint: bindings.endpoints) {
+			codeRegistry.dataFetcher(FieldCoordinates.coordinates(endpoint.type, endpoint.method.getName()), buildFetcher(diretives, authorizer, entityProcessor, endpoint));
+		}
+		for(var getter: bindings.getters) {
+			var coordinates = FieldCoordinates.coordinates(getter.type, getter.field);
+			codeRegistry.dataFetcher(coordinates, FieldMetrics.wrap(metrics, coordinates, entityProcessor.buildGetter(getter)));
+		}
+
+		var wiring = RuntimeWiring.newRuntimeWiring().codeRegistry(codeRegistry);
+		//the generator only checks the wiring for interface resolvers
+		for(var entry: bindings.interfaces.entrySet()) {
+			wiring.type(entry.getKey(), builder -> builder.typeResolver(new EntityTypeResolver(entry.getValue(), types)));
+		}
+		for(var scalar: List.of(INSTANT_SCALAR, DATE_SCALAR, DURATION_SCALAR, ZONE_ID_SCALAR, MONTH_DAY_SCALAR, YEAR_MONTH_SCALAR, LONG_SCALAR)) {
+			wiring.scalar(scalar);
+		}
+		for(var entry: bindings.scalars.entrySet()) {
+			var coercing = entry.getValue().getAnnotation(Scalar.class).value().getDeclaredConstructor().newInstance();
+			wiring.scalar(GraphQLScalarType.newScalar().name(entry.getKey()).coercing(coercing).build());
+		}
+		for(var entry: bindings.enums.entrySet()) {
+			Class<? extends Enum> type = (Class<? extends Enum>) entry.getValue();
+			wiring.type(entry.getKey(), builder -> builder.enumValues(name -> Enum.valueOf(type, name)));
+		}
+
+		var registry = new SchemaParser().parse(snapshot.sdl);
+		//the generator always adds these so the printed copies would appear twice
+		for(var name: List.of(Directives.IncludeDirective.getName(), Directives.SkipDirective.getName())) {
+			var definition = registry.getDirectiveDefinition(name);
+			definition.ifPresent(registry::remove);
+		}
+		var schema = new SchemaGenerator().makeExecutableSchema(registry, wiring.build());
+		types.putAll(schema.getTypeMap());
+		return schema;
+	}
+
+	private static class BuiltEndpoint {
+		private final GraphQLFieldDefinition field;
+		private final SchemaBindings.Endpoint endpoint;
+		private final DataFetcher<?> fetcher;
+
+		private BuiltEndpoint(GraphQLFieldDefinition field, SchemaBindings.Endpoint endpoint, DataFetcher<?> fetcher) {
+			this.field = field;
+			this.endpoint = endpoint;
+			this.fetcher = fetcher;
+		}
+	}
+
+	public static class Builder {
+		private String[] classPath = new String[0];
+		private boolean generatedIndex;
+		private Path snapshot;
+		private ForkJoinPool pool;
+		private Executor blocking;
+		private FieldMetrics metrics;
+
+		private Builder() {
+		}
+
+		/**
+		 * @param classPath package prefixes to build the schema from
+		 */
+		public Builder classpath(String... classPath) {
+			this.classPath = classPath;
+			return this;
+		}
+
+		/**
+		 * Read the index {@link com.fleetpin.graphql.builder.processor.SchemaIndexProcessor} wrote at compile time
+		 * rather than scanning the classpath.
+		 */
+		public Builder generatedIndex() {
+			this.generatedIndex = true;
+			return this;
+		}
+
+		/**
+		 * Load the schema from this file when it is up to date with the loaded classes, otherwise build the
+		 * schema and write the file for next time. Without {@link #generatedIndex()} the classpath is still
+		 * scanned so new classes are noticed. Failing to write the file is logged rather than thrown.
+		 */
+		public Builder snapshot(Path snapshot) {
+			this.snapshot = snapshot;
+			return this;
+		}
+
+		/**
+		 * Process endpoints and entities on the pool. The resulting schema is the same as a sequential build.
+		 */
+		public Builder parallel(ForkJoinPool pool) {
+			this.pool = pool;
+			return this;
+		}
+
+		/**
+		 * Executor for {@link com.fleetpin.graphql.builder.annotations.Blocking} methods, defaults to virtual
+		 * threads when available.
+		 */
+		public Builder blockingExecutor(Executor blocking) {
+			this.blocking = blocking;
+			return this;
+		}
+
+		/**
+		 * Records calls, errors and latency of every field into metrics.
+		 */
+		public Builder metrics(FieldMetrics metrics) {
+			this.metrics = metrics;
+			return this;
+		}
+
+		public GraphQLSchema build() throws ReflectiveOperationException {
+			var loader = Thread.currentThread().getContextClassLoader();
+			if(loader == null) {
+				loader = SchemaBuilder.class.getClassLoader();
+			}
+			SchemaIndex index = null;
+			List<byte[]> extra;
+			if(generatedIndex) {
+				extra = GeneratedSchemaIndex.resources(loader);
+			}else if(snapshot != null) {
+				//new classes are only seen by scanning, so the snapshot saves building the schema but not the scan
+				index = new ReflectionsSchemaIndex(classPath);
+				extra = List.of(SchemaSnapshot.describe(index));
+			}else {
+				extra = List.of();
+			}
+			if(snapshot != null) {
+				var loaded = SchemaSnapshot.read(snapshot, loader, classPath, extra);
+				if(loaded != null) {
+					try {
+						return SchemaBuilder.wire(loaded, blocking, metrics);
+					}catch (RuntimeException e) {
+						LOGGER.log(Level.WARNING, "Failed to wire schema snapshot " + snapshot + ", rebuilding it", e);
+					}
+				}
+			}
+			if(generatedIndex) {
+				index = GeneratedSchemaIndex.load(loader, classPath);
+			}else if(index == null) {
+				index = new ReflectionsSchemaIndex(classPath);
+			}
+			var bindings = new SchemaBindings();
+			var schema = SchemaBuilder.build(classPath, index, bindings, pool, blocking, metrics);
+			if(snapshot != null) {
+				try {
+					SchemaSnapshot.write(snapshot, SchemaSnapshot.print(schema), bindings, extra);
+				}catch (RuntimeException e) {
+					//only slows the next start, the schema is fine
+					LOGGER.log(Level.WARNING, "Failed to write schema snapshot " + snapshot, e);
+				}
+			}
+			return schema;
+		}
 	}
 
 
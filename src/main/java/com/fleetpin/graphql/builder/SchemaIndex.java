@@ -0,0 +1,43 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.fleetpin.graphql.builder;
+
+import java.lang.reflect.Method;
+import java.util.Set;
+
+/**
+ * The classes and methods the schema is built from. Either found by scanning the classpath at startup or
+ * read from the index {@link com.fleetpin.graphql.builder.processor.SchemaIndexProcessor} writes at compile time.
+ */
+interface SchemaIndex {
+
+	Set<Class<? extends Authorizer>> getAuthorizers();
+
+	Set<Class<? extends SchemaConfiguration>> getSchemaConfigurations();
+
+	Set<Class<?>> getDirectives();
+
+	Set<Class<?>> getRestrict();
+
+	Set<Class<?>> getRestricts();
+
+	Set<Class<?>> getEntities();
+
+	Set<Class<?>> getScalars();
+
+	Set<Method> getQueries();
+
+	Set<Method> getMutations();
+
+	Set<Method> getSubscriptions();
+}
@@ -0,0 +1,476 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.fleetpin.graphql.builder;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import com.fleetpin.graphql.builder.annotations.Directive;
+import com.fleetpin.graphql.builder.annotations.Restrict;
+import com.fleetpin.graphql.builder.annotations.Restricts;
+import com.fleetpin.graphql.builder.annotations.Scalar;
+
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.SchemaPrinter;
+
+/**
+ * Reads and writes the printed schema along with its {@link SchemaBindings}. The file holds a hash of the
+ * bytecode of every class the schema was built from, if any of them change the snapshot is treated as stale.
+ * Classes that are added without changing an existing one are noticed through the index, either the generated
+ * one or a description of what the classpath scan found. The builder's own jar is part of the hash so a new
+ * version of it rebuilds the schema.
+ */
+final class SchemaSnapshot {
+
+	private static final int MAGIC = 0x47514c53;
+	private static final int VERSION = 1;
+
+	//changes to how the schema is built also make the snapshot stale
+	private static final byte[] BUILDER = builderHash();
+
+	final String sdl;
+	final SchemaBindings bindings;
+
+	private SchemaSnapshot(String sdl, SchemaBindings bindings) {
+		this.sdl = sdl;
+		this.bindings = bindings;
+	}
+
+	static String print(GraphQLSchema schema) {
+		var options = SchemaPrinter.Options.defaultOptions()
+				.includeSchemaDefinition(true)
+				.includeScalarTypes(true)
+				.includeDirectives(true)
+				.includeDirectiveDefinitions(true);
+		return new SchemaPrinter(options).print(schema);
+	}
+
+	/**
+	 * @param extra other content the schema depends on, such as the generated index
+	 */
+	static void write(Path file, String sdl, SchemaBindings bindings, List<byte[]> extra) {
+		try {
+			var classes = classes(bindings);
+			var parent = file.toAbsolutePath().getParent();
+			if(parent != null) {
+				Files.createDirectories(parent);
+			}
+			var temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+			try(var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				writeStrings(out, Arrays.asList(bindings.classPath));
+				List<String> names = new ArrayList<>();
+				for(var type: classes) {
+					names.add(type.getName());
+				}
+				writeStrings(out, names);
+				writeBytes(out, hash(classes, extra));
+				writeBytes(out, sdl.getBytes(StandardCharsets.UTF_8));
+
+				writeClasses(out, bindings.authorizers);
+				writeClasses(out, bindings.restrict);
+				writeClasses(out, bindings.restricts);
+				writeClasses(out, bindings.directives);
+
+				out.writeInt(bindings.endpoints.size());
+				for(var endpoint: bindings.endpoints) {
+					out.writeUTF(endpoint.type);
+					writeMethod(out, endpoint.method);
+					writeClass(out, endpoint.leaf);
+					out.writeInt(endpoint.arguments.length);
+					for(var argument: endpoint.arguments) {
+						out.writeBoolean(argument != null);
+						if(argument != null) {
+							writeArgument(out, argument);
+						}
+					}
+				}
+				out.writeInt(bindings.getters.size());
+				for(var getter: bindings.getters) {
+					out.writeUTF(getter.type);
+					out.writeUTF(getter.field);
+					writeMethod(out, getter.method);
+					out.writeBoolean(getter.wrapped);
+					writeClass(out, getter.leaf);
+				}
+				out.writeInt(bindings.inputs.size());
+				for(var input: bindings.inputs) {
+					out.writeUTF(input.name);
+					writeClass(out, input.type);
+					out.writeInt(input.setters.size());
+					for(var setter: input.setters) {
+						out.writeUTF(setter.field);
+						writeMethod(out, setter.method);
+						writeArgument(out, setter.argument);
+					}
+				}
+				writeNamed(out, bindings.interfaces);
+				writeNamed(out, bindings.enums);
+				writeNamed(out, bindings.scalars);
+			}
+			Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}catch (IOException e) {
+			throw new RuntimeException("Failed to write schema snapshot " + file, e);
+		}
+	}
+
+	/**
+	 * @return null if there is no snapshot or it does not match the classes that are loaded
+	 */
+	static SchemaSnapshot read(Path file, ClassLoader loader, String[] classPath, List<byte[]> extra) {
+		try(var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+			if(in.readInt() != MAGIC || in.readInt() != VERSION) {
+				return null;
+			}
+			if(!readStrings(in).equals(Arrays.asList(classPath))) {
+				return null;
+			}
+			List<Class<?>> classes = new ArrayList<>();
+			for(var name: readStrings(in)) {
+				classes.add(load(loader, name));
+			}
+			if(!MessageDigest.isEqual(readBytes(in), hash(classes, extra))) {
+				return null;
+			}
+			String sdl = new String(readBytes(in), StandardCharsets.UTF_8);
+
+			var bindings = new SchemaBindings();
+			bindings.classPath = classPath;
+			bindings.authorizers = (Set) readClasses(in, loader);
+			bindings.restrict = readClasses(in, loader);
+			bindings.restricts = readClasses(in, loader);
+			bindings.directives = readClasses(in, loader);
+
+			int count = in.readInt();
+			for(int i = 0; i < count; i++) {
+				String type = in.readUTF();
+				Method method = readMethod(in, loader);
+				Class<?> leaf = readClass(in, loader);
+				var arguments = new SchemaBindings.Argument[in.readInt()];
+				for(int j = 0; j < arguments.length; j++) {
+					if(in.readBoolean()) {
+						arguments[j] = readArgument(in, loader);
+					}
+				}
+				bindings.endpoint(new SchemaBindings.Endpoint(type, method, leaf, arguments));
+			}
+			count = in.readInt();
+			for(int i = 0; i < count; i++) {
+				String type = in.readUTF();
+				String field = in.readUTF();
+				Method method = readMethod(in, loader);
+				boolean wrapped = in.readBoolean();
+				bindings.getter(new SchemaBindings.Getter(type, field, method, wrapped, readClass(in, loader)));
+			}
+			count = in.readInt();
+			for(int i = 0; i < count; i++) {
+				String name = in.readUTF();
+				Class<?> type = readClass(in, loader);
+				int setterCount = in.readInt();
+				List<SchemaBindings.Setter> setters = new ArrayList<>(setterCount);
+				for(int j = 0; j < setterCount; j++) {
+					String field = in.readUTF();
+					Method method = readMethod(in, loader);
+					setters.add(new SchemaBindings.Setter(field, method, readArgument(in, loader)));
+				}
+				bindings.input(new SchemaBindings.Input(name, type, setters));
+			}
+			readNamed(in, loader).forEach(bindings::interfaceType);
+			readNamed(in, loader).forEach(bindings::enumType);
+			readNamed(in, loader).forEach(bindings::scalar);
+			return new SchemaSnapshot(sdl, bindings);
+		}catch (NoSuchFileException e) {
+			return null;
+		}catch (IOException | ReflectiveOperationException | RuntimeException e) {
+			//unreadable or refers to code that has changed, rebuild
+			return null;
+		}
+	}
+
+	/**
+	 * Everything the index found, so a new class that nothing existing refers to still makes the snapshot stale
+	 */
+	static byte[] describe(SchemaIndex index) {
+		List<String> found = new ArrayList<>();
+		describeClasses(found, "authorizer", index.getAuthorizers());
+		describeClasses(found, "configuration", index.getSchemaConfigurations());
+		describeClasses(found, "directive", index.getDirectives());
+		describeClasses(found, "restrict", index.getRestrict());
+		describeClasses(found, "restricts", index.getRestricts());
+		describeClasses(found, "entity", index.getEntities());
+		describeClasses(found, "scalar", index.getScalars());
+		describeMethods(found, "query", index.getQueries());
+		describeMethods(found, "mutation", index.getMutations());
+		describeMethods(found, "subscription", index.getSubscriptions());
+		Collections.sort(found);
+		return String.join("\n", found).getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static void describeClasses(List<String> found, String kind, Collection<? extends Class<?>> types) {
+		for(var type: types) {
+			found.add(kind + " " + type.getName());
+		}
+	}
+
+	private static void describeMethods(List<String> found, String kind, Collection<Method> methods) {
+		for(var method: methods) {
+			found.add(kind + " " + method.getDeclaringClass().getName() + "." + method.getName() + Arrays.toString(method.getParameterTypes()));
+		}
+	}
+
+	private static Set<Class<?>> classes(SchemaBindings bindings) {
+		Set<Class<?>> classes = new LinkedHashSet<>();
+		classes.addAll(bindings.entities);
+		classes.addAll(bindings.configurations);
+		classes.addAll(bindings.authorizers);
+		for(var type: bindings.restrict) {
+			classes.add(type);
+			classes.add(type.getAnnotation(Restrict.class).value());
+		}
+		for(var type: bindings.restricts) {
+			classes.add(type);
+			for(var restrict: type.getAnnotation(Restricts.class).value()) {
+				classes.add(restrict.value());
+			}
+		}
+		for(var type: bindings.directives) {
+			classes.add(type);
+			var directive = type.getAnnotation(Directive.class);
+			if(directive != null) {
+				classes.add(directive.value());
+			}
+		}
+		for(var endpoint: bindings.endpoints) {
+			classes.add(endpoint.method.getDeclaringClass());
+			classes.add(endpoint.leaf);
+		}
+		for(var getter: bindings.getters) {
+			classes.add(getter.method.getDeclaringClass());
+			classes.add(getter.leaf);
+		}
+		for(var input: bindings.inputs) {
+			classes.add(input.type);
+		}
+		classes.addAll(bindings.interfaces.values());
+		classes.addAll(bindings.enums.values());
+		for(var scalar: bindings.scalars.values()) {
+			classes.add(scalar);
+			classes.add(scalar.getAnnotation(Scalar.class).value());
+		}
+		classes.removeIf(type -> type.isPrimitive() || type.getClassLoader() == null);
+		return classes;
+	}
+
+	/**
+	 * Hashes the jar the builder was loaded from, or its classes when run from a directory. If neither can be
+	 * read the implementation version is used, without one snapshots are never reused.
+	 */
+	private static byte[] builderHash() {
+		try {
+			var source = SchemaBuilder.class.getProtectionDomain().getCodeSource();
+			if(source != null && source.getLocation() != null) {
+				var location = Path.of(source.getLocation().toURI());
+				var digest = digest();
+				if(Files.isDirectory(location)) {
+					List<Path> files;
+					try(var walk = Files.walk(location.resolve(SchemaBuilder.class.getPackageName().replace('.', '/')))) {
+						files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+					}
+					for(var file: files) {
+						digest.update(location.relativize(file).toString().getBytes(StandardCharsets.UTF_8));
+						digest.update(Files.readAllBytes(file));
+					}
+				}else {
+					digest.update(Files.readAllBytes(location));
+				}
+				return digest.digest();
+			}
+		}catch (IOException | URISyntaxException | RuntimeException e) {
+			//fall back to the version
+		}
+		String version = SchemaBuilder.class.getPackage().getImplementationVersion();
+		if(version == null) {
+			version = UUID.randomUUID().toString();
+		}
+		return version.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static MessageDigest digest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		}catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private static byte[] hash(Collection<Class<?>> classes, List<byte[]> extra) throws IOException {
+		MessageDigest digest = digest();
+		digest.update(BUILDER);
+		for(var type: classes) {
+			digest.update(type.getName().getBytes(StandardCharsets.UTF_8));
+			String resource = "/" + type.getName().replace('.', '/') + ".class";
+			try(InputStream in = type.getResourceAsStream(resource)) {
+				if(in != null) {
+					digest.update(in.readAllBytes());
+				}
+			}
+		}
+		for(var bytes: extra) {
+			digest.update(bytes);
+		}
+		return digest.digest();
+	}
+
+	private static Class<?> load(ClassLoader loader, String name) throws ClassNotFoundException {
+		switch(name) {
+		case "boolean": return Boolean.TYPE;
+		case "byte": return Byte.TYPE;
+		case "char": return Character.TYPE;
+		case "short": return Short.TYPE;
+		case "int": return Integer.TYPE;
+		case "long": return Long.TYPE;
+		case "float": return Float.TYPE;
+		case "double": return Double.TYPE;
+		case "void": return Void.TYPE;
+		default: return Class.forName(name, false, loader);
+		}
+	}
+
+	private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static byte[] readBytes(DataInputStream in) throws IOException {
+		byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return bytes;
+	}
+
+	private static void writeStrings(DataOutputStream out, List<String> values) throws IOException {
+		out.writeInt(values.size());
+		for(var value: values) {
+			out.writeUTF(value);
+		}
+	}
+
+	private static List<String> readStrings(DataInputStream in) throws IOException {
+		int count = in.readInt();
+		List<String> values = new ArrayList<>(count);
+		for(int i = 0; i < count; i++) {
+			values.add(in.readUTF());
+		}
+		return values;
+	}
+
+	private static void writeClass(DataOutputStream out, Class<?> type) throws IOException {
+		out.writeUTF(type.getName());
+	}
+
+	private static Class<?> readClass(DataInputStream in, ClassLoader loader) throws IOException, ClassNotFoundException {
+		return load(loader, in.readUTF());
+	}
+
+	private static void writeClasses(DataOutputStream out, Collection<? extends Class<?>> types) throws IOException {
+		out.writeInt(types.size());
+		for(var type: types) {
+			writeClass(out, type);
+		}
+	}
+
+	private static Set<Class<?>> readClasses(DataInputStream in, ClassLoader loader) throws IOException, ClassNotFoundException {
+		int count = in.readInt();
+		Set<Class<?>> types = new LinkedHashSet<>();
+		for(int i = 0; i < count; i++) {
+			types.add(readClass(in, loader));
+		}
+		return types;
+	}
+
+	private static void writeNamed(DataOutputStream out, Map<String, Class<?>> named) throws IOException {
+		out.writeInt(named.size());
+		for(var entry: named.entrySet()) {
+			out.writeUTF(entry.getKey());
+			writeClass(out, entry.getValue());
+		}
+	}
+
+	private static Map<String, Class<?>> readNamed(DataInputStream in, ClassLoader loader) throws IOException, ClassNotFoundException {
+		int count = in.readInt();
+		Map<String, Class<?>> named = new LinkedHashMap<>();
+		for(int i = 0; i < count; i++) {
+			named.put(in.readUTF(), readClass(in, loader));
+		}
+		return named;
+	}
+
+	private static void writeMethod(DataOutputStream out, Method method) throws IOException {
+		writeClass(out, method.getDeclaringClass());
+		out.writeUTF(method.getName());
+		out.writeInt(method.getParameterCount());
+		for(var type: method.getParameterTypes()) {
+			writeClass(out, type);
+		}
+	}
+
+	private static Method readMethod(DataInputStream in, ClassLoader loader) throws IOException, ReflectiveOperationException {
+		Class<?> type = readClass(in, loader);
+		String name = in.readUTF();
+		var parameters = new Class<?>[in.readInt()];
+		for(int i = 0; i < parameters.length; i++) {
+			parameters[i] = readClass(in, loader);
+		}
+		return type.getDeclaredMethod(name, parameters);
+	}
+
+	private static void writeArgument(DataOutputStream out, SchemaBindings.Argument argument) throws IOException {
+		out.writeInt(argument.depth);
+		writeClass(out, argument.leaf);
+		out.writeBoolean(argument.inputName != null);
+		if(argument.inputName != null) {
+			out.writeUTF(argument.inputName);
+		}
+	}
+
+	private static SchemaBindings.Argument readArgument(DataInputStream in, ClassLoader loader) throws IOException, ClassNotFoundException {
+		int depth = in.readInt();
+		Class<?> leaf = readClass(in, loader);
+		String inputName = in.readBoolean() ? in.readUTF() : null;
+		return new SchemaBindings.Argument(depth, leaf, inputName);
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.fleetpin.graphql.builder;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.reactivestreams.Publisher;
+
+import com.fleetpin.graphql.builder.annotations.Subscription;
+
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import io.reactivex.rxjava3.core.Flowable;
+
+/**
+ * Fetcher for a {@link Subscription#shared()} method. Subscribers are matched on the argument values graphql
+ * coerced, the first one calls the method and the rest join its upstream through a reference counted multicast.
+ * Each subscriber reads through its own bounded buffer so a slow one fails rather than holding up the others,
+ * restrictions and authorizers are applied after this so still run for each subscriber. Methods that take a
+ * context are rejected as the upstream would only ever see the first subscriber's.
+ */
+final class SharedSubscription implements DataFetcher<Object> {
+
+	private final MethodInvoker invoker;
+	private final ArgumentBinder[] binders;
+	private final int bufferSize;
+	private final ConcurrentMap<Map<String, Object>, Flowable<Object>> upstreams;
+
+	private SharedSubscription(MethodInvoker invoker, ArgumentBinder[] binders, int bufferSize) {
+		this.invoker = invoker;
+		this.binders = binders;
+		this.bufferSize = bufferSize;
+		this.upstreams = new ConcurrentHashMap<>();
+	}
+
+	static SharedSubscription build(Method method, MethodInvoker invoker, ArgumentBinder[] binders, Subscription subscription) {
+		if(subscription.bufferSize() <= 0) {
+			throw new RuntimeException("Shared subscription buffer size must be positive " + method);
+		}
+		for(var type: method.getParameterTypes()) {
+			if(SchemaBuilder.isContext(type)) {
+				throw new RuntimeException("Shared subscriptions can not take a context " + method);
+			}
+		}
+		return new SharedSubscription(invoker, binders, subscription.bufferSize());
+	}
+
+	@Override
+	public Object get(DataFetchingEnvironment env) throws Exception {
+		var shared = upstreams.computeIfAbsent(env.getArguments(), key -> share(key, env));
+		return shared.onBackpressureBuffer(bufferSize);
+	}
+
+	private Flowable<Object> share(Map<String, Object> key, DataFetchingEnvironment env) {
+		Object[] args = ArgumentBinder.bind(binders, env);
+		var self = new AtomicReference<Flowable<Object>>();
+		//the method is called on connect so a subscriber that turns up after the upstream ended starts it again
+		Flowable<Object> shared = Flowable.defer(() -> toFlowable(invoker.invoke(null, args)))
+				.doFinally(() -> upstreams.remove(key, self.get()))
+				.publish()
+				.refCount();
+		self.set(shared);
+		return shared;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Flowable<Object> toFlowable(Object response) {
+		if(response instanceof CompletionStage) {
+			return Flowable.fromCompletionStage((CompletionStage<Object>) response).flatMap(SharedSubscription::toFlowable);
+		}
+		if(response == null) {
+			return Flowable.empty();
+		}
+		return Flowable.fromPublisher((Publisher<Object>) response);
+	}
+}
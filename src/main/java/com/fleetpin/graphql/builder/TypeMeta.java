@@ -20,12 +20,18 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
 import org.reactivestreams.Publisher;
 
 
+/**
+ * The resolved type of a getter, setter or parameter. Resolution depends on the parent it was found through,
+ * so instances are shared through {@link EntityProcessor#typeMeta} for the same parent, class and generic type
+ * and must not change once built.
+ */
 public class TypeMeta {
 
 	enum Flag{ASYNC, ARRAY, OPTIONAL, SUBSCRIPTION}
@@ -39,12 +45,18 @@ public class TypeMeta {
 	private final EntityProcessor entityProcessor;
 	private final TypeMeta parent;
 
+	private volatile String name;
+	private volatile boolean named;
+	private volatile String inputName;
+	private volatile boolean inputNamed;
+
 	TypeMeta(EntityProcessor entityProcessor, TypeMeta parent, Class<?> type, Type genericType) {
 		this.parent = parent;
 		this.entityProcessor = entityProcessor;
 		flags = new ArrayList<>();
 		process(type, genericType);
 		Collections.reverse(flags);
+		flags = Collections.unmodifiableList(flags);
 	}
 
 	private void processGeneric(TypeMeta target, TypeVariable type) {
@@ -225,11 +237,20 @@ public class TypeMeta {
 	}
 
 	public String getName() {
-		return entityProcessor.process(this);
+		if(!named) {
+			//can race when building in parallel, both get the same name and only one builds the type
+			name = entityProcessor.process(this);
+			named = true;
+		}
+		return name;
 	}
 
 	public String getInputName() {
-		return entityProcessor.processInput(this);
+		if(!inputNamed) {
+			inputName = entityProcessor.processInput(this);
+			inputNamed = true;
+		}
+		return inputName;
 	}
 
 	public boolean hasUnmappedGeneric() {
@@ -316,4 +337,30 @@ public class TypeMeta {
 	}
 
 
+	static class Key {
+		private final TypeMeta parent;
+		private final Class<?> type;
+		private final Type genericType;
+
+		Key(TypeMeta parent, Class<?> type, Type genericType) {
+			this.parent = parent;
+			this.type = type;
+			this.genericType = genericType;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(System.identityHashCode(parent), type, genericType);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(!(obj instanceof Key)) {
+				return false;
+			}
+			var other = (Key) obj;
+			//parents are shared so the same context is the same instance
+			return parent == other.parent && type.equals(other.type) && Objects.equals(genericType, other.genericType);
+		}
+	}
 }
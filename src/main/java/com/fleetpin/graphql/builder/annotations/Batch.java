@@ -0,0 +1,47 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder.annotations;
+
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Loads an entity field for all the sources in an operation at once. Put it on a static method of the entity,
+ * which declares a field named after the method. The method is given the list of sources first and returns a
+ * list, or a future of a list, with a result for each source in the same order. Any further parameters are
+ * context.
+ *
+ * On a query every graphql argument is a list holding the value of each aliased call, in the same order as the
+ * results. Other parameters are context.
+ *
+ * Context parameters are bound from the first call in the batch, so every call sharing a loader sees the same
+ * context. A @Blocking batch method runs on the blocking executor.
+ *
+ * Batching needs a DataLoaderRegistry on the ExecutionInput, without one each source is loaded on its own.
+ */
+@Retention(RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Batch {
+
+	/**
+	 * 0 for no limit
+	 */
+	int maxBatchSize() default 0;
+
+	/**
+	 * Reuse the result for the same source within an operation
+	 */
+	boolean cache() default true;
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder.annotations;
+
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+import java.util.List;
+
+import com.fleetpin.graphql.builder.ResultCache;
+import com.fleetpin.graphql.builder.SDLDirective;
+
+import graphql.introspection.Introspection.DirectiveLocation;
+
+/**
+ * Lets {@link ResultCache} keep the results of queries that select this query or entity. A cached result is
+ * dropped once its ttl passes or a mutation marked {@link Invalidates} with one of its tags completes. A query
+ * is only cached when each of its top level fields is tagged, by the method or the entity it returns.
+ */
+@Directive(CacheTags.Processor.class)
+@Retention(RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface CacheTags {
+
+	String[] value();
+
+	/**
+	 * Seconds to keep the result, the shortest of all tags in a query is used. Must be positive, leave the
+	 * query untagged to not cache it.
+	 */
+	int ttl() default 60;
+
+	class Processor implements SDLDirective<CacheTags, Arguments> {
+
+		@Override
+		public List<DirectiveLocation> validLocations() {
+			return List.of(DirectiveLocation.FIELD_DEFINITION, DirectiveLocation.OBJECT, DirectiveLocation.INTERFACE, DirectiveLocation.INPUT_OBJECT);
+		}
+
+		@Override
+		public Arguments build(CacheTags annotation, Class<?> location) {
+			if(annotation.ttl() <= 0) {
+				throw new IllegalArgumentException("CacheTags ttl must be positive but was " + annotation.ttl() + " on " + location);
+			}
+			return new Arguments(annotation);
+		}
+	}
+
+	class Arguments {
+		private final CacheTags tags;
+
+		private Arguments(CacheTags tags) {
+			this.tags = tags;
+		}
+
+		public List<String> getValue() {
+			return List.of(tags.value());
+		}
+
+		public int getTtl() {
+			return tags.ttl();
+		}
+	}
+}
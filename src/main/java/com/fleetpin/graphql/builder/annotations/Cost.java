@@ -0,0 +1,80 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder.annotations;
+
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+import java.util.List;
+
+import com.fleetpin.graphql.builder.CostInstrumentation;
+import com.fleetpin.graphql.builder.SDLDirective;
+
+import graphql.introspection.Introspection.DirectiveLocation;
+
+/**
+ * The cost of a query or entity field for {@link CostInstrumentation}. The field costs value plus its selections
+ * times the multiplier. The multiplier is the argument named by multiplier when it is set, otherwise estimate
+ * for fields that return a list and 1 for everything else.
+ */
+@Directive(Cost.Processor.class)
+@Retention(RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Cost {
+
+	int value() default 1;
+
+	/**
+	 * Name of an argument, such as limit, that sets how many results are returned
+	 */
+	String multiplier() default "";
+
+	/**
+	 * Expected size of the list returned when there is no multiplier argument
+	 */
+	int estimate() default 1;
+
+	class Processor implements SDLDirective<Cost, Arguments> {
+
+		@Override
+		public List<DirectiveLocation> validLocations() {
+			return List.of(DirectiveLocation.FIELD_DEFINITION);
+		}
+
+		@Override
+		public Arguments build(Cost annotation, Class<?> location) {
+			return new Arguments(annotation);
+		}
+	}
+
+	class Arguments {
+		private final Cost cost;
+
+		private Arguments(Cost cost) {
+			this.cost = cost;
+		}
+
+		public int getValue() {
+			return cost.value();
+		}
+
+		public String getMultiplier() {
+			return cost.multiplier();
+		}
+
+		public int getEstimate() {
+			return cost.estimate();
+		}
+	}
+}
@@ -0,0 +1,59 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder.annotations;
+
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+import java.util.List;
+
+import com.fleetpin.graphql.builder.SDLDirective;
+
+import graphql.introspection.Introspection.DirectiveLocation;
+
+/**
+ * Drops cached query results carrying any of these {@link CacheTags} once the mutation completes.
+ */
+@Directive(Invalidates.Processor.class)
+@Retention(RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Invalidates {
+
+	String[] value();
+
+	class Processor implements SDLDirective<Invalidates, Arguments> {
+
+		@Override
+		public List<DirectiveLocation> validLocations() {
+			return List.of(DirectiveLocation.FIELD_DEFINITION);
+		}
+
+		@Override
+		public Arguments build(Invalidates annotation, Class<?> location) {
+			return new Arguments(annotation);
+		}
+	}
+
+	class Arguments {
+		private final Invalidates invalidates;
+
+		private Arguments(Invalidates invalidates) {
+			this.invalidates = invalidates;
+		}
+
+		public List<String> getValue() {
+			return List.of(invalidates.value());
+		}
+	}
+}
@@ -22,4 +22,16 @@ import java.lang.annotation.Target;
 @Target(ElementType.METHOD)
 public @interface Subscription {
 
+	/**
+	 * Subscribers with the same argument values share one call to the method and one upstream subscription,
+	 * which is cancelled when the last of them leaves. The method can not take a context, as it would only
+	 * see the one of the subscriber that started it.
+	 */
+	boolean shared() default false;
+
+	/**
+	 * Events held for each subscriber of a shared subscription before it fails for falling behind, must be
+	 * positive
+	 */
+	int bufferSize() default 256;
 }
@@ -0,0 +1,155 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.fleetpin.graphql.builder.processor;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+
+import com.fleetpin.graphql.builder.Authorizer;
+import com.fleetpin.graphql.builder.SchemaConfiguration;
+import com.fleetpin.graphql.builder.annotations.Directive;
+import com.fleetpin.graphql.builder.annotations.Entity;
+import com.fleetpin.graphql.builder.annotations.Mutation;
+import com.fleetpin.graphql.builder.annotations.Query;
+import com.fleetpin.graphql.builder.annotations.Restrict;
+import com.fleetpin.graphql.builder.annotations.Restricts;
+import com.fleetpin.graphql.builder.annotations.Scalar;
+import com.fleetpin.graphql.builder.annotations.Subscription;
+
+/**
+ * Writes an index of everything the schema builder would otherwise find by scanning the classpath. Not
+ * registered as a service so it has to be enabled explicitly, then build the schema with
+ * {@code SchemaBuilder.builder().classpath(...).generatedIndex().build()}.
+ *
+ * The index is written once all sources have been seen, incremental compilers that only pass changed
+ * sources will produce a partial index.
+ */
+@SupportedAnnotationTypes("*")
+public class SchemaIndexProcessor extends AbstractProcessor {
+
+	public static final String LOCATION = "META-INF/graphql-builder/schema.index";
+
+	public static final String ENTITY = "entity";
+	public static final String SCALAR = "scalar";
+	public static final String DIRECTIVE = "directive";
+	public static final String RESTRICT = "restrict";
+	public static final String RESTRICTS = "restricts";
+	public static final String AUTHORIZER = "authorizer";
+	public static final String CONFIGURATION = "configuration";
+	public static final String QUERY = "query";
+	public static final String MUTATION = "mutation";
+	public static final String SUBSCRIPTION = "subscription";
+
+	private final Set<String> entries = new TreeSet<>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		if(roundEnv.processingOver()) {
+			write();
+			return false;
+		}
+		TypeMirror authorizer = erasure(Authorizer.class);
+		TypeMirror configuration = erasure(SchemaConfiguration.class);
+		for(Element element: roundEnv.getRootElements()) {
+			if(element instanceof TypeElement) {
+				index((TypeElement) element, authorizer, configuration);
+			}
+		}
+		return false;
+	}
+
+	private TypeMirror erasure(Class<?> type) {
+		var element = processingEnv.getElementUtils().getTypeElement(type.getCanonicalName());
+		return processingEnv.getTypeUtils().erasure(element.asType());
+	}
+
+	private void index(TypeElement type, TypeMirror authorizer, TypeMirror configuration) {
+		String name = processingEnv.getElementUtils().getBinaryName(type).toString();
+		var types = processingEnv.getTypeUtils();
+		var erased = types.erasure(type.asType());
+
+		if(type.getAnnotation(Entity.class) != null) {
+			entries.add(ENTITY + " " + name);
+		}
+		if(type.getAnnotation(Scalar.class) != null) {
+			entries.add(SCALAR + " " + name);
+		}
+		if(type.getAnnotation(Directive.class) != null) {
+			entries.add(DIRECTIVE + " " + name);
+		}
+		if(type.getAnnotation(Restrict.class) != null) {
+			entries.add(RESTRICT + " " + name);
+		}
+		if(type.getAnnotation(Restricts.class) != null) {
+			entries.add(RESTRICTS + " " + name);
+		}
+		if(!types.isSameType(erased, authorizer) && types.isAssignable(erased, authorizer)) {
+			entries.add(AUTHORIZER + " " + name);
+		}
+		if(!types.isSameType(erased, configuration) && types.isAssignable(erased, configuration)) {
+			entries.add(CONFIGURATION + " " + name);
+		}
+
+		for(Element element: type.getEnclosedElements()) {
+			if(element instanceof TypeElement) {
+				index((TypeElement) element, authorizer, configuration);
+			}else if(element.getKind() == ElementKind.METHOD) {
+				String method = name + "#" + ((ExecutableElement) element).getSimpleName();
+				if(element.getAnnotation(Query.class) != null) {
+					entries.add(QUERY + " " + method);
+				}
+				if(element.getAnnotation(Mutation.class) != null) {
+					entries.add(MUTATION + " " + method);
+				}
+				if(element.getAnnotation(Subscription.class) != null) {
+					entries.add(SUBSCRIPTION + " " + method);
+				}
+			}
+		}
+	}
+
+	private void write() {
+		try {
+			var resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", LOCATION);
+			try(Writer writer = new OutputStreamWriter(resource.openOutputStream(), StandardCharsets.UTF_8)) {
+				for(String entry: entries) {
+					writer.write(entry);
+					writer.write('\n');
+				}
+			}
+		}catch (IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed to write " + LOCATION + ": " + e.getMessage());
+		}
+	}
+}
@@ -1,8 +1,12 @@
 //REMOVE ONCE PULL REQUEST MERGED
 package graphql.execution.reactive;
 
+import java.util.Queue;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 
 import org.reactivestreams.Publisher;
@@ -10,15 +14,30 @@ import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
 
 /**
- * A reactive Publisher that bridges over another Publisher of `D` and maps the results
- * to type `U` via a CompletionStage, handling errors in that stage
+ * A reactive Publisher that bridges over another Publisher of `U` and maps the results
+ * to type `D` via a CompletionStage, handling errors in that stage.
+ * <p>
+ * At most maxInFlight events are taken from upstream before they have been passed on, and no more
+ * than the downstream subscriber has asked for. When ordered, events are passed on in the order they
+ * were published and those whose stage finishes early wait in the reorder buffer, otherwise they are
+ * passed on as soon as their stage finishes. Upstream completion or error is only passed on once every
+ * event in flight has been, a failed stage is passed on straight away and cancels upstream.
+ * <p>
+ * graphql-java creates this with the two argument constructor, those defaults can be changed with the
+ * graphql.builder.subscription.maxInFlight and graphql.builder.subscription.ordered system properties.
  *
  * @param <D> the down stream type
  * @param <U> the up stream type to be mapped to
  */
 public class CompletionStageMappingPublisher<D, U> implements Publisher<D> {
+
+    public static final int DEFAULT_MAX_IN_FLIGHT = Integer.getInteger("graphql.builder.subscription.maxInFlight", 128);
+    public static final boolean DEFAULT_ORDERED = Boolean.getBoolean("graphql.builder.subscription.ordered");
+
     private final Publisher<U> upstreamPublisher;
     private final Function<U, CompletionStage<D>> mapper;
+    private final int maxInFlight;
+    private final boolean ordered;
 
     /**
      * You need the following :
@@ -27,88 +46,247 @@ public class CompletionStageMappingPublisher<D, U> implements Publisher<D> {
      * @param mapper            a mapper function that turns upstream data into a promise of mapped D downstream data
      */
     public CompletionStageMappingPublisher(Publisher<U> upstreamPublisher, Function<U, CompletionStage<D>> mapper) {
+        this(upstreamPublisher, mapper, DEFAULT_MAX_IN_FLIGHT, DEFAULT_ORDERED);
+    }
+
+    /**
+     * @param upstreamPublisher an upstream source of data
+     * @param mapper            a mapper function that turns upstream data into a promise of mapped D downstream data
+     * @param maxInFlight       most events taken from upstream that have not been passed on yet
+     * @param ordered           pass events on in the order upstream published them
+     */
+    public CompletionStageMappingPublisher(Publisher<U> upstreamPublisher, Function<U, CompletionStage<D>> mapper, int maxInFlight, boolean ordered) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight must be positive but was " + maxInFlight);
+        }
         this.upstreamPublisher = upstreamPublisher;
         this.mapper = mapper;
+        this.maxInFlight = maxInFlight;
+        this.ordered = ordered;
     }
 
     @Override
     public void subscribe(Subscriber<? super D> downstreamSubscriber) {
-        upstreamPublisher.subscribe(new Subscriber<U>() {
-            
-            private final AtomicInteger inFlight = new AtomicInteger();
-            private volatile Runnable finish;
-            
-            Subscription delegatingSubscription;
-
-            @Override
-            public void onSubscribe(Subscription subscription) {
-                delegatingSubscription = new DelegatingSubscription(subscription);
-                downstreamSubscriber.onSubscribe(delegatingSubscription);
+        upstreamPublisher.subscribe(new MappingSubscriber<>(downstreamSubscriber, mapper, maxInFlight, ordered));
+    }
+
+    /**
+     * Get instance of an upstreamPublisher
+     *
+     * @return upstream instance of {@link Publisher}
+     */
+    public Publisher<U> getUpstreamPublisher() {
+        return upstreamPublisher;
+    }
+
+    private static final class Slot<D> {
+        private D value;
+        //written after value so reading it true makes the value visible
+        private volatile boolean complete;
+    }
+
+    /**
+     * Every signal to the downstream subscriber happens in {@link #drain()}, only one thread is ever in the loop
+     * so signals are serial and the terminal one is sent once no matter which thread finishes last.
+     */
+    private static final class MappingSubscriber<D, U> implements Subscriber<U>, Subscription {
+
+        private final Subscriber<? super D> downstream;
+        private final Function<U, CompletionStage<D>> mapper;
+        private final int maxInFlight;
+        private final boolean ordered;
+
+        //ordered holds every slot in the order it arrived, otherwise only completed slots in the order they completed
+        private final Queue<Slot<D>> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger wip = new AtomicInteger();
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        private Subscription upstream;
+        //only written by upstream signals
+        private volatile long arrived;
+        private volatile boolean done;
+        private volatile Throwable upstreamError;
+        private volatile boolean cancelled;
+
+        //only touched inside drain
+        private long emitted;
+        private long asked;
+        private boolean terminated;
+
+        private MappingSubscriber(Subscriber<? super D> downstream, Function<U, CompletionStage<D>> mapper, int maxInFlight, boolean ordered) {
+            this.downstream = downstream;
+            this.mapper = mapper;
+            this.maxInFlight = maxInFlight;
+            this.ordered = ordered;
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            if (upstream != null) {
+                subscription.cancel();
+                return;
             }
+            upstream = subscription;
+            downstream.onSubscribe(this);
+        }
 
-            @Override
-            public void onNext(U u) {
-                CompletionStage<D> completionStage;
-                try {
-                    completionStage = mapper.apply(u);
-                    inFlight.getAndIncrement();
-                    completionStage.whenComplete((d, throwable) -> {
-                        try {
-                            if (throwable != null) {
-                                handleThrowable(throwable);
-                            } else {
-                                downstreamSubscriber.onNext(d);
-                            }
-                        }finally {
-                               if(inFlight.intValue() == 1 && finish != null) {
-                                finish.run();
-                                finish = null;
-                            }
-                               inFlight.decrementAndGet();
-                        }
-                    });
-                } catch (RuntimeException throwable) {
-                    handleThrowable(throwable);
+        @Override
+        public void onNext(U u) {
+            if (done || cancelled) {
+                return;
+            }
+            Slot<D> slot = new Slot<>();
+            if (ordered) {
+                queue.offer(slot);
+            }
+            arrived++;
+            CompletionStage<D> completionStage;
+            try {
+                completionStage = mapper.apply(u);
+            } catch (RuntimeException throwable) {
+                fail(throwable);
+                return;
+            }
+            completionStage.whenComplete((d, throwable) -> {
+                if (throwable != null) {
+                    fail(throwable);
+                    return;
                 }
+                if (d == null) {
+                    fail(new NullPointerException("mapper completed with null"));
+                    return;
+                }
+                slot.value = d;
+                slot.complete = true;
+                if (!ordered) {
+                    queue.offer(slot);
+                }
+                drain();
+            });
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                return;
             }
+            upstreamError = t;
+            done = true;
+            drain();
+        }
 
-            private void handleThrowable(Throwable throwable) {
-                downstreamSubscriber.onError(throwable);
-                //
-                // reactive semantics say that IF an exception happens on a publisher
-                // then onError is called and no more messages flow.  But since the exception happened
-                // during the mapping, the upstream publisher does not no about this.
-                // so we cancel to bring the semantics back together, that is as soon as an exception
-                // has happened, no more messages flow
-                //
-                delegatingSubscription.cancel();
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
             }
+            done = true;
+            drain();
+        }
 
-            @Override
-            public void onError(Throwable t) {
-                if(inFlight.intValue() > 0) {
-                    finish = () -> downstreamSubscriber.onError(t);
-                    if(inFlight.intValue() == 0 && finish != null) {
-                        //happened together
-                        downstreamSubscriber.onError(t);
-                    }
-                }else {
-                    downstreamSubscriber.onError(t);
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                fail(new IllegalArgumentException("Rule 3.9: non-positive request " + n));
+                return;
+            }
+            long current;
+            long next;
+            do {
+                current = requested.get();
+                next = current + n;
+                if (next < 0) {
+                    next = Long.MAX_VALUE;
+                }
+            } while (!requested.compareAndSet(current, next));
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            upstream.cancel();
+            drain();
+        }
+
+        private void fail(Throwable throwable) {
+            //
+            // reactive semantics say that IF an exception happens on a publisher
+            // then onError is called and no more messages flow.  But since the exception happened
+            // during the mapping, the upstream publisher does not no about this.
+            // so we cancel to bring the semantics back together, that is as soon as an exception
+            // has happened, no more messages flow
+            //
+            failure.compareAndSet(null, throwable);
+            drain();
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            for (;;) {
+                if (cancelled || terminated) {
+                    queue.clear();
+                } else {
+                    emit();
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
                 }
             }
+        }
 
-            @Override
-            public void onComplete() {
-                if(inFlight.intValue() > 0) {
-                    finish = () -> downstreamSubscriber.onComplete();
-                    if(inFlight.intValue() == 0 && finish != null) {
-                        //happened together
-                        downstreamSubscriber.onComplete();
+        private void emit() {
+            long r = requested.get();
+            long e = emitted;
+            for (;;) {
+                Throwable error = failure.get();
+                if (error != null) {
+                    terminated = true;
+                    queue.clear();
+                    upstream.cancel();
+                    downstream.onError(error);
+                    return;
+                }
+                //read done before the queue, once done is set arrived is final
+                boolean d = done;
+                Slot<D> slot = queue.peek();
+                boolean ready = slot != null && slot.complete;
+                if (d && !ready && arrived == e) {
+                    terminated = true;
+                    Throwable t = upstreamError;
+                    if (t != null) {
+                        downstream.onError(t);
+                    } else {
+                        downstream.onComplete();
                     }
-                }else {
-                    downstreamSubscriber.onComplete();
+                    return;
+                }
+                if (!ready || e == r) {
+                    break;
+                }
+                queue.poll();
+                downstream.onNext(slot.value);
+                e++;
+                if (cancelled) {
+                    return;
                 }
             }
-        });
+            emitted = e;
+            if (done) {
+                return;
+            }
+            //never more than downstream wants or more than maxInFlight past what has been passed on
+            long target = Math.min(r, e + maxInFlight);
+            long n = target - asked;
+            if (n > 0) {
+                asked = target;
+                upstream.request(n);
+            }
+        }
     }
 }
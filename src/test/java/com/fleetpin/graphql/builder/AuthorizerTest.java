@@ -0,0 +1,96 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fleetpin.graphql.builder.authorizer.CachedAuthorizer;
+import com.fleetpin.graphql.builder.authorizer.future.FutureAuthorizer;
+import com.fleetpin.graphql.builder.authorizer.uncached.UncachedAuthorizer;
+
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.GraphQLError;
+
+public class AuthorizerTest {
+
+	@BeforeEach
+	public void reset() {
+		CachedAuthorizer.CALLS.set(0);
+		FutureAuthorizer.CALLS.set(0);
+		UncachedAuthorizer.CALLS.set(0);
+	}
+
+	@Test
+	public void testCachedWithinOperation() throws ReflectiveOperationException {
+		var schema = schema();
+		ExecutionResult result = schema.execute("query {a: secure(id: \"1\") b: secure(id: \"1\") c: secure(id: \"2\")}");
+		assertEquals(List.of(), result.getErrors());
+		Map<String, String> response = result.getData();
+		assertEquals(Map.of("a", "1", "b", "1", "c", "2"), response);
+		assertEquals(2, CachedAuthorizer.CALLS.get());
+
+		//nothing carries over to the next operation
+		schema.execute("query {a: secure(id: \"1\") b: secure(id: \"1\")}");
+		assertEquals(3, CachedAuthorizer.CALLS.get());
+	}
+
+	@Test
+	public void testCachedDenied() throws ReflectiveOperationException {
+		ExecutionResult result = schema().execute("query {a: secure(id: \"deny\") b: secure(id: \"deny\")}");
+		assertEquals(2, result.getErrors().size());
+		assertEquals(1, CachedAuthorizer.CALLS.get());
+	}
+
+	@Test
+	public void testCachedFuture() throws ReflectiveOperationException {
+		ExecutionResult result = schema().execute("query {a: remote(id: \"1\") b: remote(id: \"1\") c: remote(id: \"deny\") d: remote(id: \"deny\")}");
+		assertEquals(2, result.getErrors().size());
+		Map<String, String> response = result.getData();
+		assertEquals("1", response.get("a"));
+		assertEquals("1", response.get("b"));
+		assertNull(response.get("c"));
+		assertEquals(2, FutureAuthorizer.CALLS.get());
+	}
+
+	@Test
+	public void testFutureErrors() throws ReflectiveOperationException {
+		ExecutionResult result = schema().execute("query {a: remote(id: \"now\") b: remote(id: \"deny\") c: remote(id: \"fail\")}");
+		Map<String, String> response = result.getData();
+		assertEquals("now", response.get("a"));
+		//errors are in the order the futures complete
+		var errors = result.getErrors().stream().collect(Collectors.toMap(error -> error.getPath().get(0), GraphQLError::getMessage));
+		assertEquals(2, errors.size());
+		assertTrue(errors.get("b").endsWith(": Invalid access"), errors.get("b"));
+		assertTrue(errors.get("c").endsWith(": policy unavailable"), errors.get("c"));
+	}
+
+	@Test
+	public void testUncached() throws ReflectiveOperationException {
+		ExecutionResult result = schema().execute("query {a: plain(id: \"1\") b: plain(id: \"1\") c: plain(id: \"1\")}");
+		assertEquals(List.of(), result.getErrors());
+		assertEquals(3, UncachedAuthorizer.CALLS.get());
+	}
+
+	private GraphQL schema() throws ReflectiveOperationException {
+		return GraphQL.newGraphQL(SchemaBuilder.build("com.fleetpin.graphql.builder.authorizer")).build();
+	}
+}
@@ -0,0 +1,154 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.dataloader.DataLoaderRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fleetpin.graphql.builder.authorizer.uncached.Plain;
+import com.fleetpin.graphql.builder.authorizer.uncached.UncachedAuthorizer;
+import com.fleetpin.graphql.builder.batch.User;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+
+public class BatchTest {
+
+	private static final List<String> NAMES = List.of("user0", "user1", "user2", "user3", "user4");
+
+	@BeforeEach
+	public void reset() {
+		User.ADDRESS_BATCHES.clear();
+		User.SCORE_BATCHES.clear();
+		User.USER_BATCHES.clear();
+		User.SUM_BATCHES.clear();
+		User.ECHO_THREADS.clear();
+		User.NICKNAME_THREADS.clear();
+		Plain.BATCHES.clear();
+		UncachedAuthorizer.CALLS.set(0);
+	}
+
+	@Test
+	public void testBatched() throws ReflectiveOperationException {
+		Map<String, List<Map<String, Object>>> response = execute("query {users {name address {street} score}}", true).getData();
+		var users = response.get("users");
+		assertEquals(5, users.size());
+		assertEquals(Map.of("street", "user3 street"), users.get(3).get("address"));
+		assertEquals(5, users.get(3).get("score"));
+
+		assertEquals(List.of(NAMES), User.ADDRESS_BATCHES);
+		assertEquals(List.of(2, 2, 1), User.SCORE_BATCHES);
+	}
+
+	@Test
+	public void testCachedWithinOperation() throws ReflectiveOperationException {
+		Map<String, List<Map<String, Object>>> response = execute("query {a: users {address {street}} b: users {address {street}}}", true).getData();
+		assertEquals(response.get("a"), response.get("b"));
+		assertEquals(List.of(NAMES), User.ADDRESS_BATCHES);
+	}
+
+	@Test
+	public void testWithoutRegistry() throws ReflectiveOperationException {
+		Map<String, List<Map<String, Object>>> response = execute("query {users {address {street}}}", false).getData();
+		assertEquals(Map.of("street", "user0 street"), response.get("users").get(0).get("address"));
+		assertEquals(5, User.ADDRESS_BATCHES.size());
+	}
+
+	@Test
+	public void testQuery() throws ReflectiveOperationException {
+		Map<String, Map<String, Object>> response = execute("query {a: user(name: \"user1\") {name} b: user(name: \"user3\") {name address {street}} c: user(name: \"missing\") {name} d: user(name: \"user1\") {name}}", true).getData();
+		assertEquals(Map.of("name", "user1"), response.get("a"));
+		assertEquals("user3 street", ((Map<String, Object>) response.get("b").get("address")).get("street"));
+		assertNull(response.get("c"));
+		assertEquals(response.get("a"), response.get("d"));
+		assertEquals(List.of(List.of("user1", "user3", "missing")), User.USER_BATCHES);
+	}
+
+	@Test
+	public void testQueryArguments() throws ReflectiveOperationException {
+		Map<String, Integer> response = execute("query {a: sum(a: 1, b: 2) b: sum(a: 3) c: sum(a: 1, b: 2)}", true).getData();
+		assertEquals(Map.of("a", 3, "b", 3, "c", 3), response);
+		assertEquals(List.of(List.of(List.of(1, 3), List.of(Optional.of(2), Optional.empty()))), User.SUM_BATCHES);
+	}
+
+	@Test
+	public void testBlocking() throws ReflectiveOperationException {
+		Map<String, List<Map<String, String>>> response = execute("query {users {nickname}}", true).getData();
+		assertEquals("USER3", response.get("users").get(3).get("nickname"));
+		assertEquals(1, User.NICKNAME_THREADS.size());
+		assertNotEquals(Thread.currentThread(), User.NICKNAME_THREADS.get(0));
+	}
+
+	@Test
+	public void testQueryBlocking() throws ReflectiveOperationException {
+		Map<String, String> response = execute("query {a: echo(value: \"1\") b: echo(value: \"2\")}", true).getData();
+		assertEquals(Map.of("a", "1", "b", "2"), response);
+		assertEquals(1, User.ECHO_THREADS.size());
+		assertNotEquals(Thread.currentThread(), User.ECHO_THREADS.get(0));
+	}
+
+	@Test
+	public void testQueryAuthorized() throws ReflectiveOperationException {
+		var schema = GraphQL.newGraphQL(SchemaBuilder.build("com.fleetpin.graphql.builder.authorizer")).build();
+		ExecutionResult result = schema.execute(ExecutionInput.newExecutionInput().query("query {a: plainBatched(id: \"1\") b: plainBatched(id: \"2\") c: plainBatched(id: \"3\")}").dataLoaderRegistry(new DataLoaderRegistry()));
+		assertEquals(List.of(), result.getErrors());
+		assertEquals(Map.of("a", "1", "b", "2", "c", "3"), result.getData());
+		assertEquals(3, UncachedAuthorizer.CALLS.get());
+		assertEquals(List.of(List.of("1", "2", "3")), Plain.BATCHES);
+	}
+
+	@Test
+	public void testSnapshot(@TempDir Path directory) throws ReflectiveOperationException {
+		var file = directory.resolve("schema.snapshot");
+		SchemaBuilder.builder().classpath("com.fleetpin.graphql.builder.batch").snapshot(file).build();
+		var snapshot = SchemaSnapshot.read(file, getClass().getClassLoader(), new String[] {"com.fleetpin.graphql.builder.batch"}, SchemaSnapshotTest.scanned("com.fleetpin.graphql.builder.batch"));
+		var schema = GraphQL.newGraphQL(SchemaBuilder.wire(snapshot)).build();
+		ExecutionResult result = schema.execute(ExecutionInput.newExecutionInput().query("query {users {address {street}} a: sum(a: 1, b: 2) b: sum(a: 3)}").dataLoaderRegistry(new DataLoaderRegistry()));
+		assertEquals(List.of(), result.getErrors());
+		Map<String, Object> data = result.getData();
+		assertEquals(3, data.get("a"));
+		assertEquals(List.of(NAMES), User.ADDRESS_BATCHES);
+	}
+
+	@Test
+	public void testArgumentsMustBeLists() {
+		var e = assertThrows(RuntimeException.class, () -> SchemaBuilder.build("com.fleetpin.graphql.builder.unbatched"));
+		assertTrue(e.getMessage().contains("parameter limit must be a list"), e.getMessage());
+	}
+
+	private ExecutionResult execute(String query, boolean registry) throws ReflectiveOperationException {
+		var schema = GraphQL.newGraphQL(SchemaBuilder.build("com.fleetpin.graphql.builder.batch")).build();
+		var input = ExecutionInput.newExecutionInput().query(query);
+		if(registry) {
+			input.dataLoaderRegistry(new DataLoaderRegistry());
+		}
+		ExecutionResult result = schema.execute(input);
+		if(!result.getErrors().isEmpty()) {
+			throw new RuntimeException(result.getErrors().toString());
+		}
+		return result;
+	}
+}
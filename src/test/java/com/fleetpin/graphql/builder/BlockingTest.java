@@ -0,0 +1,85 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fleetpin.graphql.builder.blocking.Report;
+
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+
+public class BlockingTest {
+
+	private static final String CLASS_PATH = "com.fleetpin.graphql.builder.blocking";
+
+	@BeforeEach
+	public void reset() {
+		Report.THREADS.clear();
+		Report.LATCH = new CountDownLatch(0);
+	}
+
+	@Test
+	public void testOffCallingThread() throws ReflectiveOperationException {
+		ExecutionResult result = GraphQL.newGraphQL(SchemaBuilder.build(CLASS_PATH)).build().execute("query {reports {name}}");
+		assertEquals(List.of(), result.getErrors());
+		Map<String, List<Map<String, String>>> response = result.getData();
+		assertEquals(List.of(Map.of("name", "a"), Map.of("name", "b")), response.get("reports"));
+		assertNotEquals(Thread.currentThread(), Report.THREADS.get("reports"));
+		assertNotEquals(Thread.currentThread(), Report.THREADS.get("name"));
+	}
+
+	@Test
+	public void testCustomExecutor() throws ReflectiveOperationException {
+		var executor = Executors.newFixedThreadPool(3, runnable -> new Thread(runnable, "custom-blocking"));
+		try {
+			var schema = SchemaBuilder.builder().classpath(CLASS_PATH).blockingExecutor(executor).build();
+			Report.LATCH = new CountDownLatch(3);
+			var graphql = GraphQL.newGraphQL(schema).build();
+			ExecutionResult result = graphql.execute("query {a: slow b: slow c: slow}");
+			assertEquals(List.of(), result.getErrors());
+			assertEquals(Map.of("a", true, "b", true, "c", true), result.getData());
+
+			result = graphql.execute("query {reports {name}}");
+			assertEquals(List.of(), result.getErrors());
+			assertEquals("custom-blocking", Report.THREADS.get("reports").getName());
+			assertEquals("custom-blocking", Report.THREADS.get("name").getName());
+		}finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testAsyncNotWrapped() throws ReflectiveOperationException {
+		ExecutionResult result = GraphQL.newGraphQL(SchemaBuilder.build(CLASS_PATH)).build().execute("query {async}");
+		assertEquals(List.of(), result.getErrors());
+		assertEquals(Map.of("async", "done"), result.getData());
+		assertEquals(Thread.currentThread(), Report.THREADS.get("async"));
+	}
+
+	@Test
+	public void testCheckedException() throws ReflectiveOperationException {
+		ExecutionResult result = GraphQL.newGraphQL(SchemaBuilder.build(CLASS_PATH)).build().execute("query {failing}");
+		assertEquals(1, result.getErrors().size());
+		assertTrue(result.getErrors().get(0).getMessage().contains("disk on fire"), result.getErrors().get(0).getMessage());
+	}
+}
@@ -0,0 +1,94 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.schema.GraphQLSchema;
+
+public class CostTest {
+
+	private static final String CLASS_PATH = "com.fleetpin.graphql.builder.cost";
+
+	//items 1 + 3 * name 1
+	private static final String SHALLOW = "query {items(limit: 3) {name}}";
+	//items 1 + 3 * (children 5 + 10 * name 1)
+	private static final String NESTED = "query {items(limit: 3) {children {name}}}";
+
+	@TempDir
+	Path directory;
+
+	@Test
+	public void testWithinBudget() throws ReflectiveOperationException {
+		var schema = SchemaBuilder.build(CLASS_PATH);
+		assertAllowed(execute(schema, 4, SHALLOW));
+		assertAllowed(execute(schema, 46, NESTED));
+	}
+
+	@Test
+	public void testOverBudget() throws ReflectiveOperationException {
+		var schema = SchemaBuilder.build(CLASS_PATH);
+		assertRejected(execute(schema, 3, SHALLOW));
+		assertRejected(execute(schema, 45, NESTED));
+		assertRejected(execute(schema, 1000, "query {items(limit: 2147483647) {children {name}}}"));
+	}
+
+	@Test
+	public void testHugeLimit() throws ReflectiveOperationException {
+		var schema = SchemaBuilder.build(CLASS_PATH);
+		//1 + 9223372036854775807 * 15 wraps around to a small cost without saturating
+		assertRejected(execute(schema, 1000, "query {many(limit: 9223372036854775807) {children {name}}}"));
+		assertRejected(execute(schema, 1000, "query {a: items(limit: 2147483647) {children {name}} b: items(limit: 2147483647) {children {name}}}"));
+	}
+
+	@Test
+	public void testDirectiveOnlyWhenUsed() throws ReflectiveOperationException {
+		assertTrue(SchemaBuilder.build(CLASS_PATH).getDirective("Cost") != null);
+		var unused = SchemaBuilder.build("com.fleetpin.graphql.builder.publishOrdered");
+		assertNull(unused.getDirective("Cost"));
+		assertNull(unused.getDirective("CacheTags"));
+		assertNull(unused.getDirective("Invalidates"));
+	}
+
+	@Test
+	public void testSnapshot() throws ReflectiveOperationException {
+		var file = directory.resolve("schema.snapshot");
+		SchemaBuilder.builder().classpath(CLASS_PATH).snapshot(file).build();
+		var schema = SchemaBuilder.wire(SchemaSnapshot.read(file, getClass().getClassLoader(), new String[] {CLASS_PATH}, SchemaSnapshotTest.scanned(CLASS_PATH)));
+		assertAllowed(execute(schema, 46, NESTED));
+		assertRejected(execute(schema, 45, NESTED));
+	}
+
+	private ExecutionResult execute(GraphQLSchema schema, int budget, String query) {
+		return GraphQL.newGraphQL(schema).instrumentation(new CostInstrumentation(budget)).build().execute(query);
+	}
+
+	private void assertAllowed(ExecutionResult result) {
+		assertEquals(List.of(), result.getErrors());
+	}
+
+	private void assertRejected(ExecutionResult result) {
+		assertNull(result.getData());
+		assertEquals(1, result.getErrors().size());
+		assertTrue(result.getErrors().get(0).getMessage().contains("maximum query complexity exceeded"), result.getErrors().get(0).getMessage());
+	}
+}
@@ -0,0 +1,112 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.schema.FieldCoordinates;
+
+public class FieldMetricsTest {
+
+	@Test
+	public void testSync() throws ReflectiveOperationException {
+		var metrics = new FieldMetrics(1);
+		var schema = SchemaBuilder.builder().classpath("com.fleetpin.graphql.builder.cost").metrics(metrics).build();
+		ExecutionResult result = GraphQL.newGraphQL(schema).build().execute("query {items(limit: 3) {name}}");
+		assertEquals(List.of(), result.getErrors());
+
+		var snapshot = metrics.snapshot();
+		var items = snapshot.get(FieldCoordinates.coordinates("Query", "items"));
+		assertEquals(1, items.getCalls());
+		assertEquals(1, items.getSync().getCount());
+		assertEquals(0, items.getAsync().getCount());
+		assertEquals(0, items.getErrors());
+		assertEquals(3, snapshot.get(FieldCoordinates.coordinates("Item", "name")).getCalls());
+		assertEquals(0, snapshot.get(FieldCoordinates.coordinates("Item", "children")).getCalls());
+	}
+
+	@Test
+	public void testAsyncAndErrors() throws ReflectiveOperationException, InterruptedException {
+		var metrics = new FieldMetrics(1);
+		var schema = SchemaBuilder.builder().classpath("com.fleetpin.graphql.builder.blocking").metrics(metrics).build();
+		var graphql = GraphQL.newGraphQL(schema).build();
+		graphql.execute("query {async failing}");
+		graphql.execute("query {failing}");
+
+		//graphql can see the future complete before the metrics do
+		var snapshot = metrics.snapshot();
+		for(int i = 0; i < 100 && snapshot.get(FieldCoordinates.coordinates("Query", "failing")).getAsync().getCount() < 2; i++) {
+			Thread.sleep(10);
+			snapshot = metrics.snapshot();
+		}
+		var async = snapshot.get(FieldCoordinates.coordinates("Query", "async"));
+		assertEquals(1, async.getAsyncCalls());
+		assertEquals(1, async.getAsync().getCount());
+		assertEquals(0, async.getErrors());
+		var failing = snapshot.get(FieldCoordinates.coordinates("Query", "failing"));
+		assertEquals(2, failing.getAsyncCalls());
+		assertEquals(2, failing.getAsync().getCount());
+		assertEquals(2, failing.getErrors());
+	}
+
+	@Test
+	public void testExporter() throws Exception {
+		var metrics = new FieldMetrics(1);
+		var schema = SchemaBuilder.builder().classpath("com.fleetpin.graphql.builder.cost").metrics(metrics).build();
+		GraphQL.newGraphQL(schema).build().execute("query {items(limit: 2) {name}}");
+
+		var executor = Executors.newSingleThreadScheduledExecutor();
+		try {
+			var exported = new CompletableFuture<Map<FieldCoordinates, FieldMetrics.Snapshot>>();
+			metrics.schedule(executor, Duration.ofMillis(10), exported::complete);
+			assertEquals(2, exported.get(5, TimeUnit.SECONDS).get(FieldCoordinates.coordinates("Item", "name")).getCalls());
+		}finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testSampled() throws ReflectiveOperationException {
+		var metrics = new FieldMetrics(5);
+		var schema = SchemaBuilder.builder().classpath("com.fleetpin.graphql.builder.cost").metrics(metrics).build();
+		GraphQL.newGraphQL(schema).build().execute("query {items(limit: 64) {name}}");
+		var name = metrics.snapshot().get(FieldCoordinates.coordinates("Item", "name"));
+		assertEquals(64, name.getCalls());
+		assertEquals(0, name.getAsyncCalls());
+		//rounded up to every 8th
+		assertEquals(8, name.getSync().getCount());
+	}
+
+	@Test
+	public void testQuantile() throws ReflectiveOperationException {
+		var metrics = new FieldMetrics(1);
+		var schema = SchemaBuilder.builder().classpath("com.fleetpin.graphql.builder.cost").metrics(metrics).build();
+		GraphQL.newGraphQL(schema).build().execute("query {items(limit: 100) {name}}");
+		var name = metrics.snapshot().get(FieldCoordinates.coordinates("Item", "name")).getSync();
+		assertEquals(100, name.getCount());
+		assertEquals(FieldMetrics.BUCKETS, name.getBuckets().length);
+		assertTrue(name.quantile(0.5) <= name.quantile(0.99));
+		assertTrue(name.quantile(1) > 0);
+	}
+}
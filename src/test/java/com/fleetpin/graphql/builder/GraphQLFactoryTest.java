@@ -0,0 +1,175 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.SimpleInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import graphql.language.Document;
+import graphql.schema.GraphQLSchema;
+
+public class GraphQLFactoryTest {
+
+	private static final String ONE = "query {items(limit: 1) {name}}";
+	private static final String TWO = "query {items(limit: 2) {name}}";
+	private static final String THREE = "query {items(limit: 3) {name}}";
+
+	private GraphQLSchema schema;
+	private AtomicInteger parses;
+
+	@BeforeEach
+	public void setup() throws ReflectiveOperationException {
+		schema = SchemaBuilder.build("com.fleetpin.graphql.builder.cost");
+		parses = new AtomicInteger();
+	}
+
+	@Test
+	public void testParsedOnce() {
+		var graphql = factory().build();
+		for(int i = 0; i < 3; i++) {
+			assertItems(1, graphql.execute(ONE));
+		}
+		graphql.execute("query {missing}");
+		var invalid = graphql.execute("query {missing}");
+		assertEquals(1, invalid.getErrors().size());
+		assertEquals(2, parses.get());
+	}
+
+	@Test
+	public void testEvictsLeastRecentlyUsed() {
+		var graphql = factory().documentCache(2, 1000).build();
+		graphql.execute(ONE);
+		graphql.execute(TWO);
+		graphql.execute(ONE);
+		graphql.execute(THREE);
+		assertEquals(3, parses.get());
+		//two was evicted as one was used more recently
+		graphql.execute(ONE);
+		assertEquals(3, parses.get());
+		graphql.execute(TWO);
+		assertEquals(4, parses.get());
+	}
+
+	@Test
+	public void testEvictsByWeight() {
+		var graphql = factory().documentCache(100, ONE.length() * 2).build();
+		graphql.execute(ONE);
+		graphql.execute(TWO);
+		graphql.execute(THREE);
+		graphql.execute(TWO);
+		graphql.execute(THREE);
+		assertEquals(3, parses.get());
+		graphql.execute(ONE);
+		assertEquals(4, parses.get());
+
+		graphql = factory().documentCache(100, ONE.length() - 1).build();
+		graphql.execute(ONE);
+		graphql.execute(ONE);
+		assertEquals(6, parses.get());
+	}
+
+	@Test
+	public void testConcurrent() throws Exception {
+		var graphql = factory().documentCache(2, 1000).build();
+		var queries = List.of(ONE, TWO, THREE);
+		var pool = Executors.newFixedThreadPool(8);
+		try {
+			var results = new ArrayList<Future<?>>();
+			for(int thread = 0; thread < 8; thread++) {
+				results.add(pool.submit(() -> {
+					for(int i = 0; i < 300; i++) {
+						int limit = 1 + i % queries.size();
+						assertItems(limit, graphql.execute(queries.get(limit - 1)));
+					}
+				}));
+			}
+			for(var result: results) {
+				result.get();
+			}
+		}finally {
+			pool.shutdown();
+		}
+		//one query more than fits so some are parsed again, but far from every time
+		assertTrue(parses.get() < 8 * 300, "parsed " + parses.get());
+	}
+
+	@Test
+	public void testRegistered() {
+		var graphql = factory().persistedQueries(new PersistedQueries().register("items", TWO)).build();
+		assertItems(2, graphql.execute(persisted("items", PersistedQuerySupport.PERSISTED_QUERY_MARKER)));
+		assertItems(2, graphql.execute(persisted("items", "")));
+		assertItems(1, graphql.execute(ONE));
+		assertEquals(2, parses.get());
+
+		var missing = graphql.execute(persisted("other", ""));
+		assertNull(missing.getData());
+		assertEquals("PersistedQueryNotFound", missing.getErrors().get(0).getMessage());
+	}
+
+	@Test
+	public void testLearnThenLock() {
+		var queries = new PersistedQueries().learn();
+		var graphql = factory().persistedQueries(queries).build();
+		String id = PersistedQueries.hash(THREE);
+
+		assertEquals("PersistedQueryNotFound", graphql.execute(persisted(id, "")).getErrors().get(0).getMessage());
+		assertItems(3, graphql.execute(persisted(id, THREE)));
+		assertItems(3, graphql.execute(persisted(id, "")));
+		assertEquals(Map.of(id, THREE), queries.getQueries());
+
+		assertEquals("PersistedQueryIdInvalid", graphql.execute(persisted("abc", ONE)).getErrors().get(0).getMessage());
+
+		queries.lock();
+		assertItems(3, graphql.execute(persisted(id, "")));
+		assertEquals("Only persisted queries are allowed", graphql.execute(THREE).getErrors().get(0).getMessage());
+		assertEquals("PersistedQueryNotFound", graphql.execute(persisted(PersistedQueries.hash(ONE), ONE)).getErrors().get(0).getMessage());
+		assertEquals(Map.of(id, THREE), queries.getQueries());
+	}
+
+	private GraphQLFactory.Builder factory() {
+		return GraphQLFactory.builder(schema).configure(builder -> builder.instrumentation(new SimpleInstrumentation() {
+			@Override
+			public InstrumentationContext<Document> beginParse(InstrumentationExecutionParameters parameters) {
+				parses.incrementAndGet();
+				return super.beginParse(parameters);
+			}
+		}));
+	}
+
+	private static ExecutionInput persisted(String id, String query) {
+		return ExecutionInput.newExecutionInput().query(query).extensions(Map.of("persistedQuery", Map.of("version", 1, "sha256Hash", id))).build();
+	}
+
+	private static void assertItems(int count, ExecutionResult result) {
+		assertEquals(List.of(), result.getErrors());
+		Map<String, List<Object>> data = result.getData();
+		assertEquals(count, data.get("items").size());
+	}
+}
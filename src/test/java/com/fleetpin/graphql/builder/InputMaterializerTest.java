@@ -0,0 +1,148 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fleetpin.graphql.builder.materialize.Annotated;
+import com.fleetpin.graphql.builder.materialize.Inputs;
+import com.fleetpin.graphql.builder.materialize.Plain;
+import com.fleetpin.graphql.builder.materialize.Point;
+import com.fleetpin.graphql.builder.materialize.Shape;
+import com.fleetpin.graphql.builder.materialize.Square;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+
+public class InputMaterializerTest {
+
+	private static GraphQL graphql;
+
+	@BeforeAll
+	public static void setup() throws ReflectiveOperationException {
+		graphql = GraphQL.newGraphQL(SchemaBuilder.build("com.fleetpin.graphql.builder.materialize")).build();
+	}
+
+	@Test
+	public void testSetters() {
+		assertNotNull(InputMaterializer.build(Plain.class));
+		var plain = execute("query q($input: Plain!) {plain(plain: $input)}", plain("a", 1));
+		assertTrue(plain instanceof Plain);
+		assertEquals(SchemaBuilder.MAPPER.convertValue(Inputs.RAW, Plain.class), plain);
+		assertEquals("a", ((Plain) plain).getName());
+	}
+
+	@Test
+	public void testOptional() {
+		var input = plain("a", 1);
+		input.put("note", "hello");
+		input.put("parent", plain("b", 2));
+		var plain = (Plain) execute("query q($input: Plain!) {plain(plain: $input)}", input);
+		assertEquals(SchemaBuilder.MAPPER.convertValue(Inputs.RAW, Plain.class), plain);
+		assertEquals(Optional.of("hello"), plain.getNote());
+		assertEquals("b", plain.getParent().get().getName());
+
+		input.put("note", null);
+		input.put("parent", null);
+		plain = (Plain) execute("query q($input: Plain!) {plain(plain: $input)}", input);
+		assertEquals(SchemaBuilder.MAPPER.convertValue(Inputs.RAW, Plain.class), plain);
+		assertEquals(Optional.empty(), plain.getNote());
+		assertEquals(Optional.empty(), plain.getParent());
+
+		input.remove("note");
+		input.remove("parent");
+		plain = (Plain) execute("query q($input: Plain!) {plain(plain: $input)}", input);
+		assertEquals(SchemaBuilder.MAPPER.convertValue(Inputs.RAW, Plain.class), plain);
+		assertNull(plain.getNote());
+		assertNull(plain.getParent());
+	}
+
+	@Test
+	public void testNestedLists() {
+		var child = plain("b", 2);
+		child.put("children", List.of(List.of(plain("c", 3)), List.of()));
+		var input = plain("a", 1);
+		input.put("children", List.of(List.of(child, plain("d", 4)), List.of()));
+		var plain = (Plain) execute("query q($input: Plain!) {plain(plain: $input)}", input);
+		assertEquals(SchemaBuilder.MAPPER.convertValue(Inputs.RAW, Plain.class), plain);
+		assertEquals("c", plain.getChildren().get().get(0).get(0).getChildren().get().get(0).get(0).getName());
+		assertEquals(List.of(), plain.getChildren().get().get(1));
+
+		var plains = execute("query q($input: [[Plain!]!]!) {plains(plains: $input)}", List.of(List.of(plain("a", 1)), List.of(child)));
+		assertEquals(SchemaBuilder.MAPPER.convertValue(Inputs.RAW, new TypeReference<List<List<Plain>>>() {}), plains);
+		assertTrue(plains instanceof ArrayList);
+		assertEquals("b", ((List<List<Plain>>) plains).get(1).get(0).getName());
+	}
+
+	@Test
+	public void testJacksonAnnotated() {
+		assertNull(InputMaterializer.build(Annotated.class));
+		var annotated = execute("query q($input: Annotated!) {annotated(annotated: $input)}", new HashMap<>(Map.of("name", "a")));
+		assertEquals(SchemaBuilder.MAPPER.convertValue(Inputs.RAW, Annotated.class), annotated);
+		assertEquals(Optional.of("a"), ((Annotated) annotated).getName());
+
+		var input = new HashMap<String, Object>();
+		input.put("name", null);
+		annotated = execute("query q($input: Annotated!) {annotated(annotated: $input)}", input);
+		assertEquals(SchemaBuilder.MAPPER.convertValue(Inputs.RAW, Annotated.class), annotated);
+		assertEquals(Optional.of("unnamed"), ((Annotated) annotated).getName());
+	}
+
+	@Test
+	public void testNoDefaultConstructor() {
+		assertNull(InputMaterializer.build(Point.class));
+		var point = execute("query q($input: Point!) {point(point: $input)}", Map.of("x", 1, "y", 2));
+		assertEquals(SchemaBuilder.MAPPER.convertValue(Inputs.RAW, Point.class), point);
+		assertEquals(new Point(1, 2), point);
+	}
+
+	@Test
+	public void testAbstract() {
+		assertNull(InputMaterializer.build(Shape.class));
+		var shape = execute("query q($input: Shape!) {shape(shape: $input)}", Map.of("side", 3));
+		assertEquals(SchemaBuilder.MAPPER.convertValue(Inputs.RAW, Shape.class), shape);
+		assertTrue(shape instanceof Square);
+		assertEquals(3, ((Shape) shape).getSide());
+	}
+
+	private static Map<String, Object> plain(String name, int count) {
+		var plain = new HashMap<String, Object>();
+		plain.put("name", name);
+		plain.put("count", count);
+		return plain;
+	}
+
+	private Object execute(String query, Object input) {
+		Inputs.BUILT = null;
+		Inputs.RAW = null;
+		Map<String, Object> variables = new HashMap<>();
+		variables.put("input", input);
+		ExecutionResult result = graphql.execute(ExecutionInput.newExecutionInput().query(query).variables(variables).build());
+		assertTrue(result.getErrors().isEmpty(), () -> result.getErrors().toString());
+		assertEquals(Map.of(query.substring(query.indexOf('{') + 1, query.indexOf('(', query.indexOf('{'))), true), result.getData());
+		return Inputs.BUILT;
+	}
+}
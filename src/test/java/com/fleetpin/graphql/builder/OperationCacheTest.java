@@ -0,0 +1,47 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import graphql.GraphQLContext;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.DataFetchingEnvironmentImpl;
+
+public class OperationCacheTest {
+
+	@Test
+	public void testCreatedOnce() {
+		var env = env();
+		var calls = new AtomicInteger();
+		assertEquals("a1", OperationCache.computeIfAbsent(env, "a", key -> key + calls.incrementAndGet()));
+		assertEquals("a1", OperationCache.computeIfAbsent(env, "a", key -> key + calls.incrementAndGet()));
+		assertEquals(1, calls.get());
+	}
+
+	@Test
+	public void testReentrant() {
+		var env = env();
+		//a map lock held while creating would fail with a recursive update
+		String value = OperationCache.computeIfAbsent(env, "outer", key -> OperationCache.computeIfAbsent(env, "outer", inner -> "inner"));
+		assertEquals("inner", value);
+		assertEquals("inner", OperationCache.computeIfAbsent(env, "outer", key -> "again"));
+	}
+
+	private static DataFetchingEnvironment env() {
+		return DataFetchingEnvironmentImpl.newDataFetchingEnvironment().graphQLContext(GraphQLContext.newContext().build()).build();
+	}
+}
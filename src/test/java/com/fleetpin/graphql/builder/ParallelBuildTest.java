@@ -0,0 +1,64 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+
+public class ParallelBuildTest {
+
+	private static ForkJoinPool pool;
+
+	@BeforeAll
+	public static void start() {
+		pool = new ForkJoinPool(4);
+	}
+
+	@AfterAll
+	public static void stop() {
+		pool.shutdown();
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"com.fleetpin.graphql.builder.type", "com.fleetpin.graphql.builder.type.directive", "com.fleetpin.graphql.builder.parameter", "com.fleetpin.graphql.builder.generics", "com.fleetpin.graphql.builder.inputgenerics", "com.fleetpin.graphql.builder.restrictions.parameter", "com.fleetpin.graphql.builder.publishRestrictions", "com.fleetpin.graphql.builder.type.inheritance"})
+	public void testMatchesSequential(String classPath) throws ReflectiveOperationException {
+		var sequential = SchemaSnapshot.print(SchemaBuilder.build(classPath));
+		for(int i = 0; i < 5; i++) {
+			var parallel = SchemaSnapshot.print(SchemaBuilder.builder().classpath(classPath).parallel(pool).build());
+			assertEquals(sequential, parallel);
+		}
+	}
+
+	@Test
+	public void testExecute() throws ReflectiveOperationException {
+		var schema = SchemaBuilder.builder().classpath("com.fleetpin.graphql.builder.type.inheritance").parallel(pool).build();
+		ExecutionResult result = GraphQL.newGraphQL(schema).build().execute("query {animals{name ... on Cat {age fur calico} ... on Dog {age}}}");
+		assertEquals(List.of(), result.getErrors());
+		Map<String, List<Map<String, Object>>> response = result.getData();
+		var animals = response.get("animals");
+		assertEquals(3, animals.get(0).get("age"));
+		assertEquals(true, animals.get(0).get("calico"));
+		assertEquals(6, animals.get(1).get("age"));
+	}
+}
@@ -0,0 +1,47 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+
+import com.fleetpin.graphql.builder.publishOrdered.Event;
+
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import io.reactivex.rxjava3.core.Flowable;
+
+public class PublishOrderedRestrictionsTest {
+
+	@Test
+	public void testOrderedBounded() throws ReflectiveOperationException {
+		var schema = GraphQL.newGraphQL(SchemaBuilder.build("com.fleetpin.graphql.builder.publishOrdered")).build();
+		var res = schema.execute("subscription {events {value}} ");
+		Publisher<ExecutionResult> response = res.getData();
+		List<Integer> values = Flowable.fromPublisher(response).map(r -> {
+			Map<String, Map<String, Integer>> data = r.getData();
+			return data.get("events").get("value");
+		}).toList().blockingGet();
+
+		assertEquals(IntStream.rangeClosed(1, 20).filter(i -> i % 3 != 0).boxed().collect(Collectors.toList()), values);
+		assertTrue(Event.MAX_IN_FLIGHT.get() <= Event.CONCURRENCY, "in flight " + Event.MAX_IN_FLIGHT.get());
+	}
+
+}
@@ -0,0 +1,50 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+public class RestrictTypeTest {
+
+	@Test
+	public void testMixedCompletion() {
+		var first = new CompletableFuture<Boolean>();
+		var last = new CompletableFuture<Boolean>();
+		var answers = Map.of(0, first, 1, CompletableFuture.completedFuture(true), 2, CompletableFuture.completedFuture(false), 3, last);
+		RestrictType<Integer> restrict = answers::get;
+
+		var filtered = restrict.filter(List.of(0, 1, 2, 3));
+		assertFalse(filtered.isDone());
+		first.complete(true);
+		assertFalse(filtered.isDone());
+		last.complete(true);
+		assertEquals(List.of(0, 1, 3), filtered.join());
+	}
+
+	@Test
+	public void testPendingThenCompleted() {
+		var first = new CompletableFuture<Boolean>();
+		var answers = Map.of(0, first, 1, CompletableFuture.completedFuture(true), 2, CompletableFuture.completedFuture(true));
+		RestrictType<Integer> restrict = answers::get;
+
+		var filtered = restrict.filter(List.of(0, 1, 2));
+		first.complete(false);
+		assertEquals(List.of(1, 2), filtered.join());
+	}
+}
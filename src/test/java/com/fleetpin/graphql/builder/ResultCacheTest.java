@@ -0,0 +1,148 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fleetpin.graphql.builder.resultcache.Person;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+
+public class ResultCacheTest {
+
+	private ResultCache cache;
+	private GraphQL graphql;
+
+	@BeforeEach
+	public void setup() throws ReflectiveOperationException {
+		Person.CALLS.set(0);
+		Person.NAME = "alice";
+		Person.PET = "rex";
+		cache = ResultCache.builder().scope(context -> context).build();
+		graphql = GraphQLFactory.builder(SchemaBuilder.build("com.fleetpin.graphql.builder.resultcache")).resultCache(cache).build();
+	}
+
+	@Test
+	public void testCached() {
+		var first = execute("query {person {name pet {name}}}");
+		var second = execute("query {  person { name pet { name } } }");
+		assertEquals(first, second);
+		assertEquals(Map.of("person", Map.of("name", "alice", "pet", Map.of("name", "rex"))), first);
+		assertEquals(1, Person.CALLS.get());
+	}
+
+	@Test
+	public void testAliasedNested() {
+		var expected = Map.of("a", Map.of("name", "alice"), "b", Map.of("pet", Map.of("name", "rex")));
+		assertEquals(expected, execute("query {a: person {name} b: person {pet {name}}}"));
+		assertEquals(expected, execute("query {a: person {name} b: person {pet {name}}}"));
+		assertEquals(2, Person.CALLS.get());
+	}
+
+	@Test
+	public void testVariables() {
+		String query = "query find($name: String!) {find(name: $name) {name}}";
+		assertEquals(Map.of("find", Map.of("name", "a")), execute(query, Map.of("name", "a"), null));
+		assertEquals(Map.of("find", Map.of("name", "b")), execute(query, Map.of("name", "b"), null));
+		assertEquals(Map.of("find", Map.of("name", "a")), execute(query, Map.of("name", "a"), null));
+		assertEquals(2, Person.CALLS.get());
+	}
+
+	@Test
+	public void testScope() {
+		execute("query {person {name}}", Map.of(), "a");
+		execute("query {person {name}}", Map.of(), "b");
+		execute("query {person {name}}", Map.of(), "a");
+		assertEquals(2, Person.CALLS.get());
+	}
+
+	@Test
+	public void testInvalidated() {
+		execute("query {person {name}}");
+		execute("query {person {pet {name}}}");
+		execute("mutation {renamePet(name: \"fido\")}");
+
+		//only the query selecting the pet is dropped
+		assertEquals(Map.of("person", Map.of("name", "alice")), execute("query {person {name}}"));
+		assertEquals(2, Person.CALLS.get());
+		assertEquals(Map.of("person", Map.of("pet", Map.of("name", "fido"))), execute("query {person {pet {name}}}"));
+		assertEquals(3, Person.CALLS.get());
+
+		execute("mutation {rename(name: \"bob\")}");
+		assertEquals(Map.of("person", Map.of("name", "bob")), execute("query {person {name}}"));
+		assertEquals(4, Person.CALLS.get());
+
+		cache.invalidate("person");
+		execute("query {person {name}}");
+		assertEquals(5, Person.CALLS.get());
+	}
+
+	@Test
+	public void testNotCached() {
+		execute("query {person {name} greeting}");
+		execute("query {person {name} greeting}");
+		assertEquals(4, Person.CALLS.get());
+	}
+
+	@Test
+	public void testEvicted() throws ReflectiveOperationException {
+		var small = ResultCache.builder().maxEntries(2).scope(context -> null).build();
+		graphql = GraphQLFactory.builder(SchemaBuilder.build("com.fleetpin.graphql.builder.resultcache")).resultCache(small).build();
+		String query = "query find($name: String!) {find(name: $name) {name}}";
+		execute(query, Map.of("name", "a"), null);
+		execute(query, Map.of("name", "b"), null);
+		execute(query, Map.of("name", "b"), null);
+		execute(query, Map.of("name", "c"), null);
+		assertEquals(3, Person.CALLS.get());
+
+		//a was the least recently used
+		execute(query, Map.of("name", "b"), null);
+		assertEquals(3, Person.CALLS.get());
+		execute(query, Map.of("name", "a"), null);
+		assertEquals(4, Person.CALLS.get());
+	}
+
+	@Test
+	public void testScopeRequired() {
+		assertThrows(IllegalStateException.class, () -> ResultCache.builder().build());
+	}
+
+	@Test
+	public void testTtlMustBePositive() {
+		var e = assertThrows(IllegalArgumentException.class, () -> SchemaBuilder.build("com.fleetpin.graphql.builder.cachettl"));
+		assertTrue(e.getMessage().contains("ttl"), e.getMessage());
+	}
+
+	private Map<String, Object> execute(String query) {
+		return execute(query, Map.of(), null);
+	}
+
+	private Map<String, Object> execute(String query, Map<String, Object> variables, Object context) {
+		var input = ExecutionInput.newExecutionInput().query(query).variables(variables);
+		if(context != null) {
+			input.context(context);
+		}
+		ExecutionResult result = graphql.execute(input);
+		assertEquals(List.of(), result.getErrors());
+		return result.getData();
+	}
+}
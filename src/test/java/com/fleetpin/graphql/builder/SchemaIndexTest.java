@@ -0,0 +1,32 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import graphql.schema.idl.SchemaPrinter;
+
+public class SchemaIndexTest {
+
+	@ParameterizedTest
+	@ValueSource(strings = {"com.fleetpin.graphql.builder.type", "com.fleetpin.graphql.builder.parameter", "com.fleetpin.graphql.builder.generics", "com.fleetpin.graphql.builder.inputgenerics", "com.fleetpin.graphql.builder.restrictions.parameter", "com.fleetpin.graphql.builder.publishRestrictions"})
+	public void testMatchesScan(String classPath) throws ReflectiveOperationException {
+		var printer = new SchemaPrinter(SchemaPrinter.Options.defaultOptions().includeDirectives(true));
+		var scanned = printer.print(SchemaBuilder.build(classPath));
+		var indexed = printer.print(SchemaBuilder.builder().classpath(classPath).generatedIndex().build());
+		assertEquals(scanned, indexed);
+	}
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.schema.GraphQLSchema;
+
+public class SchemaSnapshotTest {
+
+	@TempDir
+	Path directory;
+
+	@ParameterizedTest
+	@ValueSource(strings = {"com.fleetpin.graphql.builder.type", "com.fleetpin.graphql.builder.parameter", "com.fleetpin.graphql.builder.generics", "com.fleetpin.graphql.builder.inputgenerics", "com.fleetpin.graphql.builder.restrictions.parameter", "com.fleetpin.graphql.builder.publishRestrictions"})
+	public void testReloadMatchesBuild(String classPath) throws ReflectiveOperationException {
+		var file = directory.resolve("schema.snapshot");
+		var built = SchemaBuilder.builder().classpath(classPath).snapshot(file).build();
+		assertTrue(Files.exists(file));
+
+		var loaded = load(classPath);
+		assertEquals(SchemaSnapshot.print(built), SchemaSnapshot.print(loaded));
+	}
+
+	@Test
+	public void testStaleClassPath() throws ReflectiveOperationException {
+		var file = directory.resolve("schema.snapshot");
+		SchemaBuilder.builder().classpath("com.fleetpin.graphql.builder.parameter").snapshot(file).build();
+		assertNull(SchemaSnapshot.read(file, getClass().getClassLoader(), new String[] {"com.fleetpin.graphql.builder.type"}, scanned("com.fleetpin.graphql.builder.type")));
+
+		//rebuilt and rewritten for the new class path
+		SchemaBuilder.builder().classpath("com.fleetpin.graphql.builder.type").snapshot(file).build();
+		assertNotNull(SchemaSnapshot.read(file, getClass().getClassLoader(), new String[] {"com.fleetpin.graphql.builder.type"}, scanned("com.fleetpin.graphql.builder.type")));
+	}
+
+	@Test
+	public void testCorrupt() throws Exception {
+		var file = directory.resolve("schema.snapshot");
+		Files.write(file, new byte[] {1, 2, 3});
+		var schema = SchemaBuilder.builder().classpath("com.fleetpin.graphql.builder.parameter").snapshot(file).build();
+		assertNotNull(schema.getQueryType().getFieldDefinition("requiredString"));
+		assertNotNull(SchemaSnapshot.read(file, getClass().getClassLoader(), new String[] {"com.fleetpin.graphql.builder.parameter"}, scanned("com.fleetpin.graphql.builder.parameter")));
+	}
+
+	@Test
+	public void testInterfaces() throws ReflectiveOperationException {
+		Map<String, List<Map<String, Object>>> response = execute(load("com.fleetpin.graphql.builder.type.inheritance"), "query {animals{name ... on Cat {age fur calico} ... on Dog {age}}}").getData();
+		var animals = response.get("animals");
+		assertEquals(3, animals.get(0).get("age"));
+		assertEquals(true, animals.get(0).get("calico"));
+		assertEquals(6, animals.get(1).get("age"));
+	}
+
+	@Test
+	public void testInput() throws ReflectiveOperationException {
+		Map<String, Boolean> response = execute(load("com.fleetpin.graphql.builder.inputgenerics"), "mutation {addCatGenerics(input: {id: \"1\", animal: {name: \"felix\", fur: true}})} ").getData();
+		assertEquals(true, response.get("addCatGenerics"));
+	}
+
+	@Test
+	public void testRestriction() throws ReflectiveOperationException {
+		Map<String, List<Object>> response = execute(load("com.fleetpin.graphql.builder.restrictions.parameter"), "query {list(allowed: [true, false, true]) {__typename}}").getData();
+		assertEquals(2, response.get("list").size());
+	}
+
+	@Test
+	public void testStaleScan() throws ReflectiveOperationException {
+		var file = directory.resolve("schema.snapshot");
+		SchemaBuilder.builder().classpath("com.fleetpin.graphql.builder.parameter").snapshot(file).build();
+		var classPath = new String[] {"com.fleetpin.graphql.builder.parameter"};
+		assertNotNull(SchemaSnapshot.read(file, getClass().getClassLoader(), classPath, scanned("com.fleetpin.graphql.builder.parameter")));
+		//as if a new class had been added that nothing existing refers to
+		assertNull(SchemaSnapshot.read(file, getClass().getClassLoader(), classPath, scanned("com.fleetpin.graphql.builder.type")));
+	}
+
+	@Test
+	public void testUnwritable() throws Exception {
+		var parent = directory.resolve("file");
+		Files.write(parent, new byte[0]);
+		var schema = SchemaBuilder.builder().classpath("com.fleetpin.graphql.builder.parameter").snapshot(parent.resolve("schema.snapshot")).build();
+		assertNotNull(schema.getQueryType().getFieldDefinition("requiredString"));
+	}
+
+	static List<byte[]> scanned(String classPath) {
+		return List.of(SchemaSnapshot.describe(new ReflectionsSchemaIndex(classPath)));
+	}
+
+	private GraphQLSchema load(String classPath) throws ReflectiveOperationException {
+		var file = directory.resolve("schema.snapshot");
+		SchemaBuilder.builder().classpath(classPath).snapshot(file).build();
+		var snapshot = SchemaSnapshot.read(file, getClass().getClassLoader(), new String[] {classPath}, scanned(classPath));
+		assertNotNull(snapshot);
+		//skip the builder so a failure to wire does not fall back to a rebuild
+		return SchemaBuilder.wire(snapshot);
+	}
+
+	private ExecutionResult execute(GraphQLSchema schema, String query) {
+		ExecutionResult result = GraphQL.newGraphQL(schema).build().execute(query);
+		if(!result.getErrors().isEmpty()) {
+			throw new RuntimeException(result.getErrors().toString());
+		}
+		return result;
+	}
+}
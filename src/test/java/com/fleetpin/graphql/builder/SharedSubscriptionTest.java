@@ -0,0 +1,144 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+
+import com.fleetpin.graphql.builder.sharedsubscription.Event;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.exceptions.MissingBackpressureException;
+import io.reactivex.rxjava3.subscribers.TestSubscriber;
+
+public class SharedSubscriptionTest {
+
+	private GraphQL graphql;
+
+	@BeforeEach
+	public void setup() throws ReflectiveOperationException {
+		Event.CALLS.set(0);
+		Event.CANCELLED.set(0);
+		Event.TOPICS.clear();
+		graphql = GraphQL.newGraphQL(SchemaBuilder.build("com.fleetpin.graphql.builder.sharedsubscription")).build();
+	}
+
+	@Test
+	public void testSameArgumentsShareUpstream() {
+		var first = subscribe("subscription {events(topic: \"a\") {message}}", null);
+		var second = subscribe("subscription {events(topic: \"a\") {message}}", null);
+		var other = subscribe("subscription {events(topic: \"b\") {message}}", null);
+		assertEquals(2, Event.CALLS.get());
+
+		publish("a", new Event("x", "hello"));
+		publish("b", new Event("x", "other"));
+		assertEquals(List.of("hello"), messages(first, "events"));
+		assertEquals(List.of("hello"), messages(second, "events"));
+		assertEquals(List.of("other"), messages(other, "events"));
+	}
+
+	@Test
+	public void testUnshared() {
+		subscribe("subscription {unshared(topic: \"a\") {message}}", null);
+		subscribe("subscription {unshared(topic: \"a\") {message}}", null);
+		assertEquals(2, Event.CALLS.get());
+	}
+
+	@Test
+	public void testRestrictedPerSubscriber() {
+		var x = subscribe("subscription {events(topic: \"a\") {message}}", "x");
+		var y = subscribe("subscription {events(topic: \"a\") {message}}", "y");
+		publish("a", new Event("x", "for x"));
+		publish("a", new Event("y", "for y"));
+		assertEquals(1, Event.CALLS.get());
+		assertEquals(List.of("for x"), messages(x, "events"));
+		assertEquals(List.of("for y"), messages(y, "events"));
+	}
+
+	@Test
+	public void testTornDownWithLastSubscriber() {
+		var first = subscribe("subscription {events(topic: \"a\") {message}}", null);
+		var second = subscribe("subscription {events(topic: \"a\") {message}}", null);
+		first.cancel();
+		assertEquals(0, Event.CANCELLED.get());
+		second.cancel();
+		assertEquals(1, Event.CANCELLED.get());
+
+		var third = subscribe("subscription {events(topic: \"a\") {message}}", null);
+		assertEquals(2, Event.CALLS.get());
+		publish("a", new Event("x", "again"));
+		assertEquals(List.of("again"), messages(third, "events"));
+	}
+
+	@Test
+	public void testSlowSubscriberFailsAlone() {
+		var slow = subscribe("subscription {small(topic: \"a\") {message}}", null, 0);
+		var fast = subscribe("subscription {small(topic: \"a\") {message}}", null);
+		for(int i = 0; i < 300; i++) {
+			publish("a", new Event("x", "event " + i));
+		}
+		slow.assertError(MissingBackpressureException.class);
+		fast.assertNoErrors();
+		assertEquals(300, fast.values().size());
+		assertEquals(0, Event.CANCELLED.get());
+	}
+
+	@Test
+	public void testContextRejected() {
+		var e = assertThrows(RuntimeException.class, () -> SchemaBuilder.build("com.fleetpin.graphql.builder.sharedcontext"));
+		assertTrue(e.getMessage().contains("can not take a context"), e.getMessage());
+	}
+
+	@Test
+	public void testBufferSizeMustBePositive() {
+		var e = assertThrows(RuntimeException.class, () -> SchemaBuilder.build("com.fleetpin.graphql.builder.sharedbuffer"));
+		assertTrue(e.getMessage().contains("buffer size must be positive"), e.getMessage());
+	}
+
+	private TestSubscriber<ExecutionResult> subscribe(String query, String user) {
+		return subscribe(query, user, Long.MAX_VALUE);
+	}
+
+	private TestSubscriber<ExecutionResult> subscribe(String query, String user, long request) {
+		var input = ExecutionInput.newExecutionInput().query(query);
+		if(user != null) {
+			input.context(user);
+		}
+		var result = graphql.execute(input);
+		assertEquals(List.of(), result.getErrors());
+		Publisher<ExecutionResult> response = result.getData();
+		return Flowable.fromPublisher(response).test(request);
+	}
+
+	private static void publish(String topic, Event event) {
+		Event.TOPICS.get(topic).onNext(event);
+	}
+
+	private static List<String> messages(TestSubscriber<ExecutionResult> subscriber, String field) {
+		return subscriber.values().stream().map(r -> {
+			Map<String, Map<String, String>> data = r.getData();
+			return data.get(field).get("message");
+		}).collect(Collectors.toList());
+	}
+}
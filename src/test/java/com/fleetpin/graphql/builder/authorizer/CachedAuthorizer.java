@@ -0,0 +1,31 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder.authorizer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fleetpin.graphql.builder.Authorizer;
+
+public class CachedAuthorizer implements Authorizer {
+
+	public static final AtomicInteger CALLS = new AtomicInteger();
+
+	public boolean allow(String id) {
+		CALLS.incrementAndGet();
+		return !id.equals("deny");
+	}
+
+	@Override
+	public boolean cacheDecisions() {
+		return true;
+	}
+}
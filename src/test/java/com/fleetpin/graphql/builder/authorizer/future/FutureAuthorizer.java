@@ -0,0 +1,38 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder.authorizer.future;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fleetpin.graphql.builder.Authorizer;
+
+public class FutureAuthorizer implements Authorizer {
+
+	public static final AtomicInteger CALLS = new AtomicInteger();
+
+	public CompletableFuture<Boolean> allow(String id) {
+		CALLS.incrementAndGet();
+		if(id.equals("now")) {
+			return CompletableFuture.completedFuture(true);
+		}
+		if(id.equals("fail")) {
+			return CompletableFuture.failedFuture(new RuntimeException("policy unavailable"));
+		}
+		return CompletableFuture.supplyAsync(() -> !id.equals("deny"));
+	}
+
+	@Override
+	public boolean cacheDecisions() {
+		return true;
+	}
+}
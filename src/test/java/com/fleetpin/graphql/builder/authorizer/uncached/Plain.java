@@ -0,0 +1,35 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder.authorizer.uncached;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fleetpin.graphql.builder.annotations.Batch;
+import com.fleetpin.graphql.builder.annotations.Query;
+
+public class Plain {
+
+	@Query
+	public static String plain(String id) {
+		return id;
+	}
+
+	public static final List<List<String>> BATCHES = new ArrayList<>();
+
+	@Query
+	@Batch
+	public static synchronized List<String> plainBatched(List<String> id) {
+		BATCHES.add(id);
+		return id;
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder.batch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.fleetpin.graphql.builder.annotations.Batch;
+import com.fleetpin.graphql.builder.annotations.Blocking;
+import com.fleetpin.graphql.builder.annotations.Entity;
+import com.fleetpin.graphql.builder.annotations.Query;
+
+@Entity
+public class User {
+
+	public static final List<List<String>> ADDRESS_BATCHES = new ArrayList<>();
+	public static final List<Integer> SCORE_BATCHES = new ArrayList<>();
+	public static final List<List<String>> USER_BATCHES = new ArrayList<>();
+	public static final List<List<List<?>>> SUM_BATCHES = new ArrayList<>();
+	public static final List<Thread> ECHO_THREADS = new ArrayList<>();
+	public static final List<Thread> NICKNAME_THREADS = new ArrayList<>();
+
+	private static final List<User> USERS = IntStream.range(0, 5).mapToObj(i -> new User("user" + i)).collect(Collectors.toList());
+
+	private final String name;
+
+	private User(String name) {
+		this.name = name;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	@Batch
+	public static synchronized List<Address> address(List<User> users) {
+		ADDRESS_BATCHES.add(users.stream().map(User::getName).collect(Collectors.toList()));
+		return users.stream().map(user -> new Address(user.name + " street")).collect(Collectors.toList());
+	}
+
+	@Blocking
+	@Batch
+	public static synchronized List<String> nickname(List<User> users) {
+		NICKNAME_THREADS.add(Thread.currentThread());
+		return users.stream().map(user -> user.name.toUpperCase()).collect(Collectors.toList());
+	}
+
+	@Batch(maxBatchSize = 2)
+	public static synchronized CompletableFuture<List<Integer>> score(List<User> users) {
+		SCORE_BATCHES.add(users.size());
+		return CompletableFuture.supplyAsync(() -> users.stream().map(user -> user.name.length()).collect(Collectors.toList()));
+	}
+
+	@Query
+	public static List<User> users() {
+		return USERS;
+	}
+
+	@Query
+	@Batch
+	public static synchronized List<Optional<User>> user(List<String> name) {
+		USER_BATCHES.add(name);
+		return name.stream().map(n -> USERS.stream().filter(user -> user.name.equals(n)).findAny()).collect(Collectors.toList());
+	}
+
+	@Query
+	@Batch
+	public static synchronized List<Integer> sum(List<Integer> a, List<Optional<Integer>> b) {
+		SUM_BATCHES.add(List.of(a, b));
+		return IntStream.range(0, a.size()).mapToObj(i -> a.get(i) + b.get(i).orElse(0)).collect(Collectors.toList());
+	}
+
+	@Query
+	@Blocking
+	@Batch
+	public static synchronized List<String> echo(List<String> value) {
+		ECHO_THREADS.add(Thread.currentThread());
+		return value;
+	}
+}
@@ -0,0 +1,67 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder.blocking;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.fleetpin.graphql.builder.annotations.Blocking;
+import com.fleetpin.graphql.builder.annotations.Entity;
+import com.fleetpin.graphql.builder.annotations.Query;
+
+@Entity
+@Blocking
+public class Report {
+
+	public static final Map<String, Thread> THREADS = new ConcurrentHashMap<>();
+	public static volatile CountDownLatch LATCH = new CountDownLatch(0);
+
+	private final String name;
+
+	private Report(String name) {
+		this.name = name;
+	}
+
+	public String getName() {
+		THREADS.put("name", Thread.currentThread());
+		return name;
+	}
+
+	@Query
+	public static List<Report> reports() {
+		THREADS.put("reports", Thread.currentThread());
+		return List.of(new Report("a"), new Report("b"));
+	}
+
+	@Query
+	public static boolean slow() throws InterruptedException {
+		//only all returns true if the others are running at the same time
+		LATCH.countDown();
+		return LATCH.await(5, TimeUnit.SECONDS);
+	}
+
+	@Query
+	public static String failing() throws IOException {
+		throw new IOException("disk on fire");
+	}
+
+	@Query
+	public static CompletableFuture<String> async() {
+		THREADS.put("async", Thread.currentThread());
+		return CompletableFuture.completedFuture("done");
+	}
+}
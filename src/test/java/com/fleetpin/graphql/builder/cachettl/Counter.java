@@ -0,0 +1,24 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder.cachettl;
+
+import com.fleetpin.graphql.builder.annotations.CacheTags;
+import com.fleetpin.graphql.builder.annotations.Query;
+
+public class Counter {
+
+	@Query
+	@CacheTags(value = "count", ttl = 0)
+	public static int count() {
+		return 0;
+	}
+}
@@ -0,0 +1,52 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder.cost;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.fleetpin.graphql.builder.annotations.Cost;
+import com.fleetpin.graphql.builder.annotations.Entity;
+import com.fleetpin.graphql.builder.annotations.Query;
+
+@Entity
+public class Item {
+
+	private final String name;
+
+	private Item(String name) {
+		this.name = name;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	@Cost(value = 5, estimate = 10)
+	public List<Item> getChildren() {
+		return Collections.emptyList();
+	}
+
+	@Query
+	@Cost(multiplier = "limit")
+	public static List<Item> many(long limit) {
+		return Collections.emptyList();
+	}
+
+	@Query
+	@Cost(multiplier = "limit")
+	public static List<Item> items(int limit) {
+		return IntStream.range(0, limit).mapToObj(i -> new Item("item" + i)).collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,56 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder.materialize;
+
+import java.util.List;
+
+import com.fleetpin.graphql.builder.annotations.Query;
+
+import graphql.schema.DataFetchingEnvironment;
+
+public class Inputs {
+
+	//what the query was handed and the coerced value jackson used to be given
+	public static Object BUILT;
+	public static Object RAW;
+
+	@Query
+	public static boolean plain(Plain plain, DataFetchingEnvironment env) {
+		return record(plain, env, "plain");
+	}
+
+	@Query
+	public static boolean plains(List<List<Plain>> plains, DataFetchingEnvironment env) {
+		return record(plains, env, "plains");
+	}
+
+	@Query
+	public static boolean annotated(Annotated annotated, DataFetchingEnvironment env) {
+		return record(annotated, env, "annotated");
+	}
+
+	@Query
+	public static boolean point(Point point, DataFetchingEnvironment env) {
+		return record(point, env, "point");
+	}
+
+	@Query
+	public static boolean shape(Shape shape, DataFetchingEnvironment env) {
+		return record(shape, env, "shape");
+	}
+
+	private static boolean record(Object built, DataFetchingEnvironment env, String name) {
+		BUILT = built;
+		RAW = env.getArgument(name);
+		return true;
+	}
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder.materialize;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import com.fleetpin.graphql.builder.annotations.Entity;
+import com.fleetpin.graphql.builder.annotations.SchemaOption;
+
+@Entity(SchemaOption.INPUT)
+public class Plain {
+
+	private String name;
+	private int count;
+	private Optional<String> note;
+	private Optional<Plain> parent;
+	private Optional<List<List<Plain>>> children;
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public int getCount() {
+		return count;
+	}
+
+	public void setCount(int count) {
+		this.count = count;
+	}
+
+	public Optional<String> getNote() {
+		return note;
+	}
+
+	public void setNote(Optional<String> note) {
+		this.note = note;
+	}
+
+	public Optional<Plain> getParent() {
+		return parent;
+	}
+
+	public void setParent(Optional<Plain> parent) {
+		this.parent = parent;
+	}
+
+	public Optional<List<List<Plain>>> getChildren() {
+		return children;
+	}
+
+	public void setChildren(Optional<List<List<Plain>>> children) {
+		this.children = children;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(name, count, note, parent, children);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if(!(obj instanceof Plain)) {
+			return false;
+		}
+		var other = (Plain) obj;
+		return Objects.equals(name, other.name) && count == other.count && Objects.equals(note, other.note) && Objects.equals(parent, other.parent)
+				&& Objects.equals(children, other.children);
+	}
+}
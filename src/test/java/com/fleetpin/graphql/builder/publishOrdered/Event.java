@@ -0,0 +1,86 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder.publishOrdered;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.reactivestreams.Publisher;
+
+import com.fleetpin.graphql.builder.RestrictType;
+import com.fleetpin.graphql.builder.RestrictTypeFactory;
+import com.fleetpin.graphql.builder.annotations.Entity;
+import com.fleetpin.graphql.builder.annotations.Query;
+import com.fleetpin.graphql.builder.annotations.Restrict;
+import com.fleetpin.graphql.builder.annotations.Subscription;
+
+import graphql.schema.DataFetchingEnvironment;
+import io.reactivex.rxjava3.core.Flowable;
+
+@Entity
+@Restrict(Event.Restrictor.class)
+public class Event {
+	public static final int CONCURRENCY = 2;
+	public static final AtomicInteger IN_FLIGHT = new AtomicInteger();
+	public static final AtomicInteger MAX_IN_FLIGHT = new AtomicInteger();
+
+	private final int value;
+
+	public Event(int value) {
+		this.value = value;
+	}
+
+	public int getValue() {
+		return value;
+	}
+
+	@Query
+	public static String MustHaveAQuery() {
+		return "String";
+	}
+
+	@Subscription
+	public static Publisher<Event> events() {
+		return Flowable.range(1, 20).map(Event::new);
+	}
+
+	public static class Restrictor implements RestrictTypeFactory<Event>, RestrictType<Event> {
+
+		@Override
+		public CompletableFuture<RestrictType<Event>> create(DataFetchingEnvironment context) {
+			return CompletableFuture.completedFuture(this);
+		}
+
+		@Override
+		public int publisherConcurrency() {
+			return CONCURRENCY;
+		}
+
+		@Override
+		public boolean publisherOrdered() {
+			return true;
+		}
+
+		@Override
+		public CompletableFuture<Boolean> allow(Event obj) {
+			MAX_IN_FLIGHT.accumulateAndGet(IN_FLIGHT.incrementAndGet(), Math::max);
+			//earlier events take longer so would overtake without ordering
+			var executor = CompletableFuture.delayedExecutor((21 - obj.value) * 3, TimeUnit.MILLISECONDS);
+			return CompletableFuture.supplyAsync(() -> {
+				IN_FLIGHT.decrementAndGet();
+				return obj.value % 3 != 0;
+			}, executor);
+		}
+
+	}
+}
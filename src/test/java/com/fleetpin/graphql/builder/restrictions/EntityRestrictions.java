@@ -1,6 +1,7 @@
 package com.fleetpin.graphql.builder.restrictions;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.fleetpin.graphql.builder.RestrictType;
 import com.fleetpin.graphql.builder.RestrictTypeFactory;
@@ -10,8 +11,11 @@ import graphql.schema.DataFetchingEnvironment;
 
 public class EntityRestrictions implements RestrictTypeFactory<RestrictedEntity> {
 
+	public static final AtomicInteger CREATED = new AtomicInteger();
+
 	@Override
 	public CompletableFuture<RestrictType<RestrictedEntity>> create(DataFetchingEnvironment context) {
+		CREATED.incrementAndGet();
 		return CompletableFuture.completedFuture(new DatabaseRestrict());
 	}
 	
@@ -98,6 +98,14 @@ public class RestrictionTypesTest {
 		Assertions.assertEquals(0, responseNoneAllowed.get("listOptional").size());
 	}
 	
+	@Test
+	public void restrictionCreatedOncePerOperation() throws ReflectiveOperationException, JsonMappingException, JsonProcessingException {
+		EntityRestrictions.CREATED.set(0);
+		Map<String, Object> response = execute("query { a: single(allowed: true) { __typename } b: singleOptional(allowed: false) { __typename } c: list(allowed: [true, false]) { __typename } }", new HashMap<>()).getData();
+		Assertions.assertEquals(1, ((List<?>) response.get("c")).size());
+		Assertions.assertEquals(1, EntityRestrictions.CREATED.get());
+	}
+	
 	private static ExecutionResult execute(String query, Map<String, Object> variables)
 			throws JsonMappingException, JsonProcessingException {
 		
@@ -0,0 +1,75 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder.resultcache;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fleetpin.graphql.builder.annotations.CacheTags;
+import com.fleetpin.graphql.builder.annotations.Entity;
+import com.fleetpin.graphql.builder.annotations.Invalidates;
+import com.fleetpin.graphql.builder.annotations.Mutation;
+import com.fleetpin.graphql.builder.annotations.Query;
+
+@Entity
+@CacheTags("person")
+public class Person {
+
+	public static final AtomicInteger CALLS = new AtomicInteger();
+	public static volatile String NAME = "alice";
+	public static volatile String PET = "rex";
+
+	private final String name;
+
+	private Person(String name) {
+		this.name = name;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public Pet getPet() {
+		return new Pet(PET);
+	}
+
+	@Query
+	public static Person person() {
+		CALLS.incrementAndGet();
+		return new Person(NAME);
+	}
+
+	@Query
+	public static Person find(String name) {
+		CALLS.incrementAndGet();
+		return new Person(name);
+	}
+
+	@Query
+	public static String greeting() {
+		CALLS.incrementAndGet();
+		return "hello";
+	}
+
+	@Mutation
+	@Invalidates("person")
+	public static boolean rename(String name) {
+		NAME = name;
+		return true;
+	}
+
+	@Mutation
+	@Invalidates("pet")
+	public static boolean renamePet(String name) {
+		PET = name;
+		return true;
+	}
+}
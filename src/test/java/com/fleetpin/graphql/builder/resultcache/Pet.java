@@ -0,0 +1,30 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder.resultcache;
+
+import com.fleetpin.graphql.builder.annotations.CacheTags;
+import com.fleetpin.graphql.builder.annotations.Entity;
+
+@Entity
+@CacheTags("pet")
+public class Pet {
+
+	private final String name;
+
+	Pet(String name) {
+		this.name = name;
+	}
+
+	public String getName() {
+		return name;
+	}
+}
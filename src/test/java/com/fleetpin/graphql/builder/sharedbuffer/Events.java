@@ -0,0 +1,34 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder.sharedbuffer;
+
+import org.reactivestreams.Publisher;
+
+import com.fleetpin.graphql.builder.annotations.Entity;
+import com.fleetpin.graphql.builder.annotations.Query;
+import com.fleetpin.graphql.builder.annotations.Subscription;
+
+import io.reactivex.rxjava3.core.Flowable;
+
+@Entity
+public class Events {
+
+	@Query
+	public static String MustHaveAQuery() {
+		return "String";
+	}
+
+	@Subscription(shared = true, bufferSize = 0)
+	public static Publisher<String> events(String topic) {
+		return Flowable.just(topic);
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder.sharedsubscription;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.reactivestreams.Publisher;
+
+import com.fleetpin.graphql.builder.RestrictType;
+import com.fleetpin.graphql.builder.RestrictTypeFactory;
+import com.fleetpin.graphql.builder.annotations.Entity;
+import com.fleetpin.graphql.builder.annotations.Query;
+import com.fleetpin.graphql.builder.annotations.Restrict;
+import com.fleetpin.graphql.builder.annotations.Subscription;
+
+import graphql.schema.DataFetchingEnvironment;
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.processors.PublishProcessor;
+
+@Entity
+@Restrict(Event.Restrictor.class)
+public class Event {
+
+	public static final AtomicInteger CALLS = new AtomicInteger();
+	public static final AtomicInteger CANCELLED = new AtomicInteger();
+	public static final Map<String, PublishProcessor<Event>> TOPICS = new ConcurrentHashMap<>();
+
+	private final String owner;
+	private final String message;
+
+	public Event(String owner, String message) {
+		this.owner = owner;
+		this.message = message;
+	}
+
+	public String getOwner() {
+		return owner;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+	@Query
+	public static String MustHaveAQuery() {
+		return "String";
+	}
+
+	@Subscription(shared = true)
+	public static Publisher<Event> events(String topic) {
+		return topic(topic);
+	}
+
+	@Subscription(shared = true, bufferSize = 2)
+	public static Publisher<Event> small(String topic) {
+		return topic(topic);
+	}
+
+	@Subscription
+	public static Publisher<Event> unshared(String topic) {
+		return topic(topic);
+	}
+
+	private static Publisher<Event> topic(String topic) {
+		CALLS.incrementAndGet();
+		return TOPICS.computeIfAbsent(topic, t -> PublishProcessor.create()).doOnCancel(CANCELLED::incrementAndGet);
+	}
+
+	public static class Restrictor implements RestrictTypeFactory<Event> {
+
+		@Override
+		public CompletableFuture<RestrictType<Event>> create(DataFetchingEnvironment context) {
+			Object user = context.getContext();
+			RestrictType<Event> restrict = event -> CompletableFuture.completedFuture(!(user instanceof String) || user.equals(event.getOwner()));
+			return CompletableFuture.completedFuture(restrict);
+		}
+	}
+}
@@ -0,0 +1,40 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.fleetpin.graphql.builder.unbatched;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.fleetpin.graphql.builder.annotations.Batch;
+import com.fleetpin.graphql.builder.annotations.Entity;
+import com.fleetpin.graphql.builder.annotations.Query;
+
+@Entity
+public class Item {
+
+	private final String id;
+
+	private Item(String id) {
+		this.id = id;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	//each alias could pass a different limit, but only one would be seen
+	@Query
+	@Batch
+	public static List<Item> items(List<String> id, int limit) {
+		return id.stream().limit(limit).map(Item::new).collect(Collectors.toList());
+	}
+}
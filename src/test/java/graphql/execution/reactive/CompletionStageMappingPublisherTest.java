@@ -0,0 +1,266 @@
+package graphql.execution.reactive;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+
+/**
+ * Runs many rounds with stages completing on a pool, inline and out of order so the races between the last
+ * stage finishing and upstream terminating are hit.
+ */
+public class CompletionStageMappingPublisherTest {
+
+    private static final int ROUNDS = 50;
+    private static final int EVENTS = 2000;
+    private static final int MAX_IN_FLIGHT = 16;
+
+    private static ExecutorService pool;
+
+    @BeforeAll
+    public static void start() {
+        pool = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterAll
+    public static void stop() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void testOrderedStress() throws InterruptedException {
+        var expected = IntStream.range(0, EVENTS).boxed().collect(Collectors.toList());
+        for (int round = 0; round < ROUNDS; round++) {
+            var recorder = run(Flowable.range(0, EVENTS), true);
+            assertEquals(expected, recorder.values());
+            recorder.assertCompleted();
+        }
+    }
+
+    @Test
+    public void testUnorderedStress() throws InterruptedException {
+        var expected = IntStream.range(0, EVENTS).boxed().collect(Collectors.toList());
+        for (int round = 0; round < ROUNDS; round++) {
+            var recorder = run(Flowable.range(0, EVENTS), false);
+            var values = recorder.values();
+            Collections.sort(values);
+            assertEquals(expected, values);
+            recorder.assertCompleted();
+        }
+    }
+
+    @Test
+    public void testUpstreamErrorWaitsForInFlight() throws InterruptedException {
+        var error = new IllegalStateException("upstream");
+        for (boolean ordered : new boolean[] {true, false}) {
+            for (int round = 0; round < ROUNDS; round++) {
+                var recorder = run(Flowable.range(0, 100).concatWith(Flowable.error(error)), ordered);
+                assertEquals(100, recorder.values().size());
+                assertSame(error, recorder.error.get());
+                assertEquals(1, recorder.terminals.get());
+                assertEquals(0, recorder.violations.get());
+            }
+        }
+    }
+
+    @Test
+    public void testMappingFailureCancelsUpstream() throws InterruptedException {
+        var error = new IllegalStateException("mapping");
+        for (boolean ordered : new boolean[] {true, false}) {
+            var cancelled = new AtomicBoolean();
+            var upstream = Flowable.range(0, EVENTS).doOnCancel(() -> cancelled.set(true));
+            var recorder = new Recorder(Long.MAX_VALUE);
+            new CompletionStageMappingPublisher<Integer, Integer>(upstream, i -> {
+                if (i == 50) {
+                    return CompletableFuture.failedFuture(error);
+                }
+                return async(i);
+            }, MAX_IN_FLIGHT, ordered).subscribe(recorder);
+            recorder.await();
+            assertSame(error, recorder.error.get());
+            assertTrue(cancelled.get());
+            assertTrue(recorder.values().size() < EVENTS);
+            assertEquals(1, recorder.terminals.get());
+            assertEquals(0, recorder.violations.get());
+        }
+    }
+
+    @Test
+    public void testDemandDriven() {
+        var asked = new AtomicLong();
+        var upstream = Flowable.range(0, EVENTS).doOnRequest(asked::addAndGet);
+        var recorder = new Recorder(0);
+        new CompletionStageMappingPublisher<Integer, Integer>(upstream, CompletableFuture::completedFuture, 4, true).subscribe(recorder);
+        assertEquals(0, asked.get());
+
+        recorder.subscription.request(10);
+        assertEquals(10, asked.get());
+        assertEquals(IntStream.range(0, 10).boxed().collect(Collectors.toList()), recorder.values());
+
+        recorder.subscription.request(5);
+        assertEquals(15, asked.get());
+        assertEquals(15, recorder.values().size());
+        assertEquals(0, recorder.terminals.get());
+    }
+
+    @Test
+    public void testBoundedInFlight() throws InterruptedException {
+        var inFlight = new AtomicInteger();
+        var max = new AtomicInteger();
+        var release = new CompletableFuture<Void>();
+        var upstream = Flowable.range(0, EVENTS).doOnNext(i -> max.accumulateAndGet(inFlight.incrementAndGet(), Math::max));
+        var recorder = new Recorder(Long.MAX_VALUE) {
+            @Override
+            public void onNext(Integer value) {
+                inFlight.decrementAndGet();
+                super.onNext(value);
+            }
+        };
+        new CompletionStageMappingPublisher<Integer, Integer>(upstream, i -> release.thenApplyAsync(v -> i, pool), MAX_IN_FLIGHT, false).subscribe(recorder);
+        assertEquals(MAX_IN_FLIGHT, inFlight.get());
+        release.complete(null);
+        recorder.await();
+        recorder.assertCompleted();
+        assertEquals(EVENTS, recorder.values().size());
+        assertTrue(max.get() <= MAX_IN_FLIGHT, "max in flight " + max.get());
+    }
+
+    @Test
+    public void testUpstreamPublisher() {
+        Publisher<Object> upstream = Flowable.empty();
+        assertSame(upstream, new SubscriptionPublisher(upstream, v -> null).getUpstreamPublisher());
+    }
+
+    private Recorder run(Flowable<Integer> upstream, boolean ordered) throws InterruptedException {
+        var recorder = new Recorder(Long.MAX_VALUE);
+        Function<Integer, CompletionStage<Integer>> mapper = CompletionStageMappingPublisherTest::async;
+        new CompletionStageMappingPublisher<>(upstream.subscribeOn(Schedulers.from(pool)), mapper, MAX_IN_FLIGHT, ordered).subscribe(recorder);
+        recorder.await();
+        return recorder;
+    }
+
+    /**
+     * Mix of stages that are already complete, complete on the pool straight away and complete after a pause.
+     */
+    private static CompletionStage<Integer> async(Integer value) {
+        var random = ThreadLocalRandom.current();
+        int kind = random.nextInt(4);
+        if (kind == 0) {
+            return CompletableFuture.completedFuture(value);
+        }
+        if (kind == 1) {
+            return CompletableFuture.supplyAsync(() -> value, pool);
+        }
+        long pause = random.nextLong(1_000, 20_000);
+        return CompletableFuture.supplyAsync(() -> {
+            LockSupport.parkNanos(pause);
+            return value;
+        }, pool);
+    }
+
+    /**
+     * Records what it is sent and counts any signal that overlaps another or follows a terminal one.
+     */
+    private static class Recorder implements Subscriber<Integer> {
+
+        private final long initialRequest;
+        private final ConcurrentLinkedQueue<Integer> values = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean busy = new AtomicBoolean();
+        private final AtomicInteger violations = new AtomicInteger();
+        private final AtomicInteger terminals = new AtomicInteger();
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+        private final CountDownLatch terminated = new CountDownLatch(1);
+        private volatile Subscription subscription;
+
+        private Recorder(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.subscription = subscription;
+            if (initialRequest > 0) {
+                subscription.request(initialRequest);
+            }
+        }
+
+        @Override
+        public void onNext(Integer value) {
+            enter();
+            values.add(value);
+            exit();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            enter();
+            error.set(t);
+            terminals.incrementAndGet();
+            exit();
+            terminated.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            enter();
+            terminals.incrementAndGet();
+            exit();
+            terminated.countDown();
+        }
+
+        private void enter() {
+            if (!busy.compareAndSet(false, true) || terminals.get() != 0) {
+                violations.incrementAndGet();
+            }
+        }
+
+        private void exit() {
+            busy.set(false);
+        }
+
+        void await() throws InterruptedException {
+            assertTrue(terminated.await(10, TimeUnit.SECONDS), "timed out after " + values.size() + " values");
+            //a duplicate terminal signal would land after the first
+            Thread.sleep(1);
+        }
+
+        List<Integer> values() {
+            return new ArrayList<>(values);
+        }
+
+        void assertCompleted() {
+            assertEquals(null, error.get());
+            assertEquals(1, terminals.get());
+            assertEquals(0, violations.get());
+        }
+    }
+}